@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("application")
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.williamcallahan"
@@ -63,3 +64,10 @@ dependencies {
 tasks.test {
     useJUnitPlatform()
 }
+
+// Render-path microbenchmarks live in src/jmh; run with `make bench`
+jmh {
+    jmhVersion = "1.37"
+    profilers = listOf("gc")
+    resultFormat = "TEXT"
+}
@@ -0,0 +1,153 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the single-pass {@link AnsiText} scanner with the regex-based helpers it replaced.
+ * Run with {@code make bench}; the GC profiler reports allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnsiTextBenchmark {
+
+    private static final String GREEN = "\u001b[38;2;0;255;65m";
+    private static final String BOLD = "\u001b[1m";
+    private static final String RESET = "\u001b[0m";
+
+    /** Line shapes seen in history rendering: plain wrapped text and styled labels. */
+    @Param({ "plain", "styled" })
+    public String shape;
+
+    private String line;
+
+    @Setup
+    public void setup() {
+        String body = "The quick brown fox jumps over the lazy dog while the model thinks";
+        line = "plain".equals(shape)
+            ? body
+            : BOLD + GREEN + "Assistant" + RESET + " " + GREEN + body + RESET;
+    }
+
+    @Benchmark
+    public int visualWidth_Scanner() {
+        return AnsiText.visualWidth(line);
+    }
+
+    @Benchmark
+    public int visualWidth_Regex() {
+        return Legacy.stripAnsi(line).length();
+    }
+
+    @Benchmark
+    public String stripAnsi_Scanner() {
+        return AnsiText.strip(line);
+    }
+
+    @Benchmark
+    public String stripAnsi_Regex() {
+        return Legacy.stripAnsi(line);
+    }
+
+    @Benchmark
+    public String padRight_Scanner() {
+        return AnsiText.padRight(line, 120);
+    }
+
+    @Benchmark
+    public String padRight_Regex() {
+        return Legacy.padRight(line, 120);
+    }
+
+    @Benchmark
+    public String truncate_Scanner() {
+        return AnsiText.truncate(line, 40);
+    }
+
+    @Benchmark
+    public String truncate_Regex() {
+        return Legacy.truncate(line, 40);
+    }
+
+    /** The TuiTheme implementations prior to the scanner, kept verbatim for comparison. */
+    private static final class Legacy {
+
+        private static final char ANSI_ESC = '\u001B';
+        private static final String ANSI_RESET = ANSI_ESC + "[0m";
+
+        static String stripAnsi(String text) {
+            if (text == null) return "";
+            return text.replaceAll("\u001B\\[[;\\d]*m", "");
+        }
+
+        static String padRight(String text, int width) {
+            if (text == null) text = "";
+            int textLen = stripAnsi(text).length();
+            if (textLen >= width) return text;
+            return text + " ".repeat(width - textLen);
+        }
+
+        static String truncate(String text, int width) {
+            if (text == null) return "";
+            int visualLen = stripAnsi(text).length();
+            if (visualLen <= width) return text;
+            if (width <= 3) return truncatePreservingAnsi(text, width);
+            return truncatePreservingAnsi(text, width - 3) + "...";
+        }
+
+        private static String truncatePreservingAnsi(String text, int targetWidth) {
+            if (text == null || targetWidth <= 0) return "";
+
+            StringBuilder result = new StringBuilder();
+            int visualCount = 0;
+            int i = 0;
+            boolean hasOpenAnsi = false;
+
+            while (i < text.length() && visualCount < targetWidth) {
+                int ansiEnd = findAnsiSequenceEnd(text, i);
+                if (ansiEnd > i) {
+                    String seq = text.substring(i, ansiEnd);
+                    result.append(seq);
+                    hasOpenAnsi = !seq.equals(ANSI_RESET);
+                    i = ansiEnd;
+                } else {
+                    result.append(text.charAt(i));
+                    visualCount++;
+                    i++;
+                }
+            }
+
+            if (hasOpenAnsi) {
+                result.append(ANSI_RESET);
+            }
+            return result.toString();
+        }
+
+        private static int findAnsiSequenceEnd(String text, int pos) {
+            if (pos + 1 >= text.length()) return pos;
+            if (
+                text.charAt(pos) != ANSI_ESC || text.charAt(pos + 1) != '['
+            ) return pos;
+
+            int end = pos + 2;
+            while (end < text.length() && text.charAt(end) != 'm') {
+                end++;
+            }
+            return (end < text.length()) ? end + 1 : pos;
+        }
+    }
+}
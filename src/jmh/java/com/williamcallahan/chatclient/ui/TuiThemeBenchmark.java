@@ -0,0 +1,108 @@
+package com.williamcallahan.chatclient.ui;
+
+import com.williamcallahan.tui4j.compat.lipgloss.Style;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Allocation comparison for per-frame theme work: styles built on every call versus the
+ * shared styles and memoized fragments in {@link TuiTheme}. Compare {@code gc.alloc.rate.norm}
+ * between the Fresh and Cached variants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TuiThemeBenchmark {
+
+    private static final int WIDTH = 118;
+    private static final String MODEL = "gpt-4.1-mini";
+
+    @Benchmark
+    public String labels_Fresh() {
+        return (
+            Style.newStyle().foreground(TuiTheme.ACCENT).bold(true).render("You") +
+            Style.newStyle().foreground(TuiTheme.PRIMARY).bold(true).render("Assistant") +
+            Style.newStyle().foreground(TuiTheme.MUTED).faint(true).render("Tool")
+        );
+    }
+
+    @Benchmark
+    public String labels_Cached() {
+        return (
+            TuiTheme.render(TuiTheme.userLabel(), "You") +
+            TuiTheme.render(TuiTheme.assistantLabel(), "Assistant") +
+            TuiTheme.render(TuiTheme.hint(), "Tool")
+        );
+    }
+
+    /** Title border as composed before memoization: fresh styles, every fragment rendered. */
+    @Benchmark
+    public String titleBorder_Fresh() {
+        Style borderStyle = Style.newStyle().foreground(TuiTheme.BORDER);
+        Style titleStyle = Style.newStyle().foreground(TuiTheme.PRIMARY).bold(true);
+        Style infoStyle = Style.newStyle().foreground(TuiTheme.MUTED);
+        int lineWidth = Math.max(0, WIDTH - 2 - 5 - MODEL.length() - 4);
+        return (
+            borderStyle.render("┌") +
+            borderStyle.render("─ ") +
+            titleStyle.render("brief") +
+            borderStyle.render(" ") +
+            borderStyle.render("─".repeat(lineWidth)) +
+            borderStyle.render(" ") +
+            infoStyle.render(MODEL) +
+            borderStyle.render(" ─") +
+            borderStyle.render("┐")
+        );
+    }
+
+    /** Same border built from memoized fragments; only the model info is rendered. */
+    @Benchmark
+    public String titleBorder_Cached() {
+        Style borderStyle = TuiTheme.border();
+        int lineWidth = Math.max(0, WIDTH - 2 - 5 - MODEL.length() - 4);
+        return (
+            TuiTheme.render(borderStyle, "┌") +
+            TuiTheme.render(borderStyle, "─ ") +
+            TuiTheme.render(TuiTheme.brandTitle(), "brief") +
+            TuiTheme.render(borderStyle, " ") +
+            TuiTheme.borderRun(lineWidth) +
+            TuiTheme.render(borderStyle, " ") +
+            TuiTheme.muted().render(MODEL) +
+            TuiTheme.render(borderStyle, " ─") +
+            TuiTheme.render(borderStyle, "┐")
+        );
+    }
+
+    @Benchmark
+    public String statusHints_Fresh() {
+        Style keyStyle = Style.newStyle().foreground(TuiTheme.ACCENT).bold(true);
+        Style actionStyle = Style.newStyle().foreground(TuiTheme.MUTED);
+        String bullet = Style.newStyle().foreground(TuiTheme.MUTED).render(" • ");
+        return String.join(
+            bullet,
+            keyStyle.render("newline") + " " + actionStyle.render("Ctrl+J"),
+            keyStyle.render("/") + " " + actionStyle.render("commands"),
+            keyStyle.render("esc") + " " + actionStyle.render("quit")
+        );
+    }
+
+    @Benchmark
+    public String statusHints_Cached() {
+        return TuiTheme.shortcutRow(
+            TuiTheme.shortcutHint("newline", "Ctrl+J"),
+            TuiTheme.shortcutHint("/", "commands"),
+            TuiTheme.shortcutHint("esc", "quit")
+        );
+    }
+}
@@ -30,6 +30,9 @@ public final class Config {
         this.priority = resolvePriority();
     }
 
+    /** Directory holding the config file; other per-user state lives alongside it. */
+    public Path configDir() { return configPath.getParent(); }
+
     /** Returns the active priority mode. */
     public Priority priority() { return priority; }
 
@@ -37,7 +40,11 @@ public final class Config {
 
     public String resolveApiKey()  { return resolve("OPENAI_API_KEY", "openai.api_key"); }
     public String resolveBaseUrl() { return resolve("OPENAI_BASE_URL", "openai.base_url"); }
+    /** Comma-separated endpoint pool, each entry {@code url[;weight=N]}; overrides the base URL. */
+    public String resolveBaseUrls() { return resolve("OPENAI_BASE_URLS", "openai.base_urls"); }
     public String resolveModel()   { return resolve("LLM_MODEL", "model"); }
+    /** {@code responses} or {@code chat_completions} (the default when unset). */
+    public String resolveApiFamily() { return resolve("OPENAI_API_FAMILY", "openai.api_family"); }
     public String resolveAppleMapsToken() { return resolve("APPLE_MAPS_TOKEN", "apple_maps.token"); }
 
     public boolean hasResolvedApiKey() { return resolveApiKey() != null; }
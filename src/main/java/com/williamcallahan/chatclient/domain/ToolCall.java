@@ -9,6 +9,8 @@ public record ToolCall(
     @JsonProperty("provider_id") String providerId,
     @JsonProperty("name") String name,
     @JsonProperty("arguments") Map<String, Object> arguments,
+    // Argument JSON exactly as the provider sent it; null for calls saved before it was kept
+    @JsonProperty("raw_arguments") String rawArguments,
     @JsonProperty("status") Status status,
     @JsonProperty("result") Map<String, Object> result,
     @JsonProperty("error") Map<String, Object> error
@@ -0,0 +1,54 @@
+package com.williamcallahan.chatclient.service;
+
+/**
+ * Cancels one in-flight {@link ToolExecutor#respond} call from another thread.
+ *
+ * <p>The request thread registers an abort action for whatever it is currently blocked on
+ * (an HTTP call, a batch of tool calls); {@link #cancel()} runs it, so the connection is
+ * released right away instead of after the provider finishes.
+ */
+public final class Cancellation {
+
+    private volatile boolean cancelled = false;
+    private Runnable abort = null;
+
+    /** Marks the request cancelled and aborts the operation it is waiting on, if any. */
+    public void cancel() {
+        Runnable toRun;
+        synchronized (this) {
+            if (cancelled) return;
+            cancelled = true;
+            toRun = abort;
+            abort = null;
+        }
+        if (toRun != null) toRun.run();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /** Throws {@link RequestCancelledException} once {@link #cancel()} has been called. */
+    void throwIfCancelled() {
+        if (cancelled) throw new RequestCancelledException();
+    }
+
+    /**
+     * Sets the action that aborts the current operation, replacing any previous one.
+     * Runs it immediately when the request is already cancelled.
+     */
+    void onCancel(Runnable action) {
+        synchronized (this) {
+            if (!cancelled) {
+                abort = action;
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /** Forgets the abort action once the operation it belongs to has finished. */
+    synchronized void clear() {
+        abort = null;
+    }
+}
@@ -1,15 +1,32 @@
 package com.williamcallahan.chatclient.service;
 
+import com.openai.client.OpenAIClient;
+import com.openai.core.http.AsyncStreamResponse;
+import com.openai.helpers.ChatCompletionAccumulator;
 import com.openai.models.chat.completions.ChatCompletion;
+import com.openai.models.chat.completions.ChatCompletionChunk;
 import com.openai.models.chat.completions.ChatCompletionCreateParams;
 import com.openai.models.chat.completions.ChatCompletionMessageParam;
 import com.openai.models.chat.completions.ChatCompletionUserMessageParam;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
 
 /** Chat completions API wrapper. */
 public final class ChatCompletionService {
 
+    private static final Logger LOG = Logger.getLogger(
+        ChatCompletionService.class.getName()
+    );
+
+    // Process-wide so first-byte samples and the hedge budget outlive a screen
+    private static final Hedger HEDGER = Hedger.fromEnv();
+
     private final OpenAiService openAi;
 
     public ChatCompletionService(OpenAiService openAi) {
@@ -27,6 +44,199 @@ public final class ChatCompletionService {
         return openAi.client().chat().completions().create(params);
     }
 
+    /**
+     * Sends a chat completion request through the async client so it can be aborted.
+     * Goes to the best endpoint in the pool and fails over to another on connection errors.
+     *
+     * @param params       completion parameters (model, messages, tools, etc.)
+     * @param cancellation cancelling it cancels the HTTP call and releases its connection
+     * @return completion response; never null per OpenAI SDK contract
+     * @throws RequestCancelledException when cancelled before the response arrived
+     * @throws com.openai.core.http.HttpRequestException on network or API errors
+     */
+    public ChatCompletion complete(
+        ChatCompletionCreateParams params,
+        Cancellation cancellation
+    ) {
+        if (HEDGER == null) {
+            return openAi
+                .endpoints()
+                .execute((client, firstByte) ->
+                    completeOn(client, params, cancellation)
+                );
+        }
+        return HEDGER.run(params, cancellation, (legParams, legCancel, won) ->
+            openAi
+                .endpoints()
+                .execute((client, firstByte) ->
+                    completeOn(client, legParams, legCancel)
+                )
+        );
+    }
+
+    /** Hedging counters, or null when hedging is off (BRIEF_HEDGE_PERCENTILE unset). */
+    public HedgeStats hedgeStats() {
+        if (HEDGER == null) return null;
+        Hedger.Stats s = HEDGER.stats();
+        return new HedgeStats(s.requests(), s.hedged(), s.hedgeWins(), s.delayMillis());
+    }
+
+    /**
+     * @param delayMillis current hedge delay, or -1 while too few latencies have been seen
+     */
+    public record HedgeStats(
+        long requests,
+        long hedged,
+        long hedgeWins,
+        double delayMillis
+    ) {}
+
+    private static ChatCompletion completeOn(
+        OpenAIClient client,
+        ChatCompletionCreateParams params,
+        Cancellation cancellation
+    ) {
+        cancellation.throwIfCancelled();
+        CompletableFuture<ChatCompletion> future = client
+            .async()
+            .chat()
+            .completions()
+            .create(params);
+        cancellation.onCancel(() -> future.cancel(true));
+        try {
+            return await(future, cancellation);
+        } finally {
+            cancellation.clear();
+        }
+    }
+
+    /**
+     * Sends a chat completion request over SSE, reporting deltas to the listener as they
+     * arrive and assembling text and tool-call fragments into a regular completion.
+     * Fails over to another endpoint only if the connection fails before any chunk arrives.
+     *
+     * @param params       completion parameters (model, messages, tools, etc.)
+     * @param listener     receives first-token timing, text deltas and tool-call names
+     * @param cancellation cancelling it closes the stream and releases its connection
+     * @return the accumulated completion, equivalent to what {@link #complete} returns
+     * @throws RequestCancelledException when cancelled before the stream finished
+     * @throws com.openai.core.http.HttpRequestException on network or API errors
+     */
+    public ChatCompletion stream(
+        ChatCompletionCreateParams params,
+        StreamListener listener,
+        Cancellation cancellation
+    ) {
+        if (HEDGER == null) {
+            return openAi
+                .endpoints()
+                .execute((client, firstByte) ->
+                    streamOn(client, params, listener, cancellation, () -> {
+                        firstByte.run();
+                        return true;
+                    })
+                );
+        }
+        return HEDGER.run(params, cancellation, (legParams, legCancel, won) ->
+            openAi
+                .endpoints()
+                .execute((client, firstByte) ->
+                    streamOn(client, legParams, listener, legCancel, () -> {
+                        firstByte.run();
+                        return won.getAsBoolean();
+                    })
+                )
+        );
+    }
+
+    private static ChatCompletion streamOn(
+        OpenAIClient client,
+        ChatCompletionCreateParams params,
+        StreamListener listener,
+        Cancellation cancellation,
+        BooleanSupplier onChunk
+    ) {
+        cancellation.throwIfCancelled();
+        ChatCompletionAccumulator accumulator = ChatCompletionAccumulator.create();
+        long start = System.nanoTime();
+        boolean[] firstToken = { false };
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        AsyncStreamResponse<ChatCompletionChunk> response = client
+            .async()
+            .chat()
+            .completions()
+            .createStreaming(params);
+        cancellation.onCancel(() -> {
+            response.close();
+            done.cancel(true);
+        });
+        response.subscribe(
+            new AsyncStreamResponse.Handler<>() {
+                @Override
+                public void onNext(ChatCompletionChunk chunk) {
+                    // A hedged leg that lost the race drops its chunks until it is cancelled
+                    if (!onChunk.getAsBoolean()) return;
+                    accumulator.accumulate(chunk);
+                    for (ChatCompletionChunk.Choice choice : chunk.choices()) {
+                        var delta = choice.delta();
+                        String text = delta.content().orElse("");
+                        var toolCalls = delta.toolCalls().orElse(List.of());
+                        if (
+                            !firstToken[0] &&
+                            (!text.isEmpty() || !toolCalls.isEmpty())
+                        ) {
+                            firstToken[0] = true;
+                            long ttft = System.nanoTime() - start;
+                            LOG.fine(() ->
+                                "first token after " + ttft / 1_000_000 + " ms"
+                            );
+                            listener.onFirstToken(ttft);
+                        }
+                        if (!text.isEmpty()) listener.onText(text);
+                        for (var call : toolCalls) {
+                            call
+                                .function()
+                                .flatMap(fn -> fn.name())
+                                .filter(name -> !name.isBlank())
+                                .ifPresent(listener::onToolCall);
+                        }
+                    }
+                }
+
+                @Override
+                public void onComplete(Optional<Throwable> error) {
+                    if (error.isPresent()) done.completeExceptionally(error.get());
+                    else done.complete(null);
+                }
+            }
+        );
+        try {
+            await(done, cancellation);
+        } finally {
+            cancellation.clear();
+            response.close();
+        }
+        return accumulator.chatCompletion();
+    }
+
+    /** Waits for an SDK future, rethrowing its failure as-is rather than wrapped. */
+    static <T> T await(
+        CompletableFuture<T> future,
+        Cancellation cancellation
+    ) {
+        try {
+            return future.join();
+        } catch (CancellationException e) {
+            throw new RequestCancelledException();
+        } catch (CompletionException e) {
+            if (cancellation.isCancelled()) throw new RequestCancelledException();
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw e;
+        }
+    }
+
     /**
      * Simple text completion for summarization and other single-turn tasks.
      *
@@ -0,0 +1,293 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.client.OpenAIClient;
+import com.openai.errors.OpenAIIoException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Spreads requests across several OpenAI-compatible base URLs (e.g. a few LM Studio or
+ * Ollama boxes).
+ *
+ * <p>Each request goes to the healthy endpoint with the lowest
+ * {@code (outstanding + 1) × EWMA latency ÷ weight}, so a slow or busy node gets less
+ * traffic. Latency is time to first byte, from streamed requests; full response time of
+ * non-streamed ones is kept apart and only ranks endpoints until some first byte has been
+ * seen. Endpoints without a latency sample yet score zero and are tried first. A
+ * connection error marks the endpoint down for a cooldown and the request fails over to
+ * the next one, as long as no response bytes had arrived. Once the cooldown ends, a
+ * background {@code /models} probe must succeed before the endpoint takes traffic again.
+ * With one endpoint the pool just tracks stats and never takes it out of service.
+ */
+public final class EndpointPool {
+
+    private static final Logger LOG = Logger.getLogger(
+        EndpointPool.class.getName()
+    );
+
+    private static final double EWMA_ALPHA = 0.3;
+    private static final long COOLDOWN_MS = 15_000;
+    private static final Map<String, EndpointPool> POOLS = new ConcurrentHashMap<>();
+
+    /** A configured base URL and its relative share of traffic. */
+    public record Spec(String baseUrl, int weight) {}
+
+    /** Snapshot of one endpoint's state, for {@code /endpoints}. */
+    public record Stats(
+        String baseUrl,
+        int weight,
+        boolean healthy,
+        int outstanding,
+        long requests,
+        long failures,
+        double firstByteMillis,
+        double totalMillis
+    ) {}
+
+    /**
+     * One attempt of a request against a chosen endpoint. Call {@code firstByte} when the
+     * response starts arriving: time to first byte is measured to that point, and the
+     * request is no longer retried elsewhere after it. Attempts that never call it count
+     * toward full response time instead.
+     */
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T run(OpenAIClient client, Runnable firstByte);
+    }
+
+    /** A result and the base URL of the endpoint that produced it. */
+    public record Served<T>(T value, String baseUrl) {}
+
+    private final List<Endpoint> endpoints;
+
+    private EndpointPool(List<Spec> specs, Function<String, OpenAIClient> clients) {
+        List<Endpoint> list = new ArrayList<>(specs.size());
+        for (Spec spec : specs) {
+            list.add(new Endpoint(spec, clients.apply(spec.baseUrl())));
+        }
+        this.endpoints = List.copyOf(list);
+    }
+
+    /** Returns the process-wide pool for these endpoints and API key, creating it on first use. */
+    public static EndpointPool shared(List<Spec> specs, String apiKey) {
+        return POOLS.computeIfAbsent(specs + "|" + apiKey, k ->
+            new EndpointPool(specs, url -> OpenAiClients.get(url, apiKey))
+        );
+    }
+
+    /** Pool over caller-supplied clients, for tests. */
+    static EndpointPool of(List<Spec> specs, Function<String, OpenAIClient> clients) {
+        return new EndpointPool(specs, clients);
+    }
+
+    /**
+     * Parses {@code url[;weight=N], url[;weight=N], ...}. Blank entries are skipped and
+     * weights below 1 are treated as 1.
+     */
+    public static List<Spec> parse(String value) {
+        List<Spec> specs = new ArrayList<>();
+        if (value == null) return specs;
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String url = parts[0].trim();
+            if (url.isEmpty()) continue;
+            int weight = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String option = parts[i].trim();
+                if (option.startsWith("weight=")) {
+                    try {
+                        weight = Math.max(1, Integer.parseInt(option.substring(7).trim()));
+                    } catch (NumberFormatException e) {
+                        weight = 1;
+                    }
+                }
+            }
+            specs.add(new Spec(url, weight));
+        }
+        return specs;
+    }
+
+    /** Client of the first configured endpoint, for calls that do not go through the pool. */
+    public OpenAIClient primary() {
+        return endpoints.getFirst().client;
+    }
+
+    public boolean isMulti() {
+        return endpoints.size() > 1;
+    }
+
+    /**
+     * Runs the attempt on the best endpoint, failing over to the next on connection errors
+     * that happen before the first response byte.
+     */
+    public <T> T execute(Attempt<T> attempt) {
+        return execute(null, attempt).value();
+    }
+
+    /**
+     * Like {@link #execute(Attempt)}, but tries {@code preferredBaseUrl} first while it is
+     * healthy, for requests only that endpoint can serve in full (a stored response it
+     * created), and reports which endpoint answered.
+     */
+    public <T> Served<T> execute(String preferredBaseUrl, Attempt<T> attempt) {
+        List<Endpoint> order = ranked();
+        if (preferredBaseUrl != null) {
+            for (int i = 0; i < order.size(); i++) {
+                Endpoint e = order.get(i);
+                if (e.up && e.spec.baseUrl().equals(preferredBaseUrl)) {
+                    order.addFirst(order.remove(i));
+                    break;
+                }
+            }
+        }
+        RuntimeException last = null;
+        for (Endpoint endpoint : order) {
+            long start = System.nanoTime();
+            AtomicBoolean started = new AtomicBoolean(false);
+            Runnable firstByte = () -> {
+                if (started.compareAndSet(false, true)) {
+                    endpoint.recordFirstByte(System.nanoTime() - start);
+                }
+            };
+            endpoint.outstanding.incrementAndGet();
+            endpoint.requests.incrementAndGet();
+            try {
+                T result = attempt.run(endpoint.client, firstByte);
+                if (!started.get()) endpoint.recordTotal(System.nanoTime() - start);
+                return new Served<>(result, endpoint.spec.baseUrl());
+            } catch (RuntimeException e) {
+                if (!isConnectionError(e)) throw e;
+                // A lone endpoint has nowhere to fail over to, so a cooldown only delays it
+                if (isMulti()) endpoint.markDown(e);
+                else endpoint.failures.incrementAndGet();
+                if (started.get()) throw e;
+                last = e;
+            } finally {
+                endpoint.outstanding.decrementAndGet();
+            }
+        }
+        throw last;
+    }
+
+    /** Current per-endpoint stats, in configuration order. */
+    public List<Stats> stats() {
+        return endpoints.stream().map(Endpoint::stats).toList();
+    }
+
+    /**
+     * Healthy endpoints by score, then the rest by when their cooldown ends, so a request
+     * still has somewhere to go when every endpoint is down.
+     */
+    private List<Endpoint> ranked() {
+        long now = System.currentTimeMillis();
+        List<Endpoint> healthy = new ArrayList<>();
+        List<Endpoint> down = new ArrayList<>();
+        boolean byFirstByte = false;
+        for (Endpoint e : endpoints) {
+            if (e.isHealthy(now)) healthy.add(e);
+            else down.add(e);
+            if (e.firstByteNanos > 0) byFirstByte = true;
+        }
+        boolean firstByteKnown = byFirstByte;
+        healthy.sort(Comparator.comparingDouble(e -> e.score(firstByteKnown)));
+        down.sort(Comparator.comparingLong(e -> e.downUntil));
+        healthy.addAll(down);
+        return healthy;
+    }
+
+    private static boolean isConnectionError(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof OpenAIIoException || t instanceof IOException) return true;
+        }
+        return false;
+    }
+
+    private static final class Endpoint {
+
+        final Spec spec;
+        final OpenAIClient client;
+        final AtomicInteger outstanding = new AtomicInteger();
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicBoolean probing = new AtomicBoolean(false);
+        volatile double firstByteNanos = 0;
+        volatile double totalNanos = 0;
+        volatile boolean up = true;
+        volatile long downUntil = 0;
+
+        Endpoint(Spec spec, OpenAIClient client) {
+            this.spec = spec;
+            this.client = client;
+        }
+
+        double score(boolean byFirstByte) {
+            double latency = byFirstByte ? firstByteNanos : totalNanos;
+            return (outstanding.get() + 1) * latency / spec.weight();
+        }
+
+        synchronized void recordFirstByte(long nanos) {
+            firstByteNanos = ewma(firstByteNanos, nanos);
+        }
+
+        synchronized void recordTotal(long nanos) {
+            totalNanos = ewma(totalNanos, nanos);
+        }
+
+        private static double ewma(double average, long sample) {
+            return (average == 0)
+                ? sample
+                : EWMA_ALPHA * sample + (1 - EWMA_ALPHA) * average;
+        }
+
+        void markDown(Throwable cause) {
+            failures.incrementAndGet();
+            up = false;
+            downUntil = System.currentTimeMillis() + COOLDOWN_MS;
+            LOG.log(Level.FINE, "endpoint down: " + spec.baseUrl(), cause);
+        }
+
+        /** Up, or past its cooldown with a probe that has since succeeded. */
+        boolean isHealthy(long nowMs) {
+            if (up) return true;
+            if (nowMs >= downUntil) probe();
+            return false;
+        }
+
+        private void probe() {
+            if (!probing.compareAndSet(false, true)) return;
+            Thread.ofVirtual().name("endpoint-probe").start(() -> {
+                try {
+                    client.withOptions(o -> o.maxRetries(0)).models().list();
+                    up = true;
+                } catch (RuntimeException e) {
+                    markDown(e);
+                } finally {
+                    probing.set(false);
+                }
+            });
+        }
+
+        Stats stats() {
+            return new Stats(
+                spec.baseUrl(),
+                spec.weight(),
+                up,
+                outstanding.get(),
+                requests.get(),
+                failures.get(),
+                firstByteNanos / 1_000_000.0,
+                totalNanos / 1_000_000.0
+            );
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.models.chat.completions.ChatCompletionCreateParams;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Logger;
+
+/**
+ * Hedged chat completion requests: when the first response byte takes longer than a
+ * percentile of recent first-byte times, a duplicate is sent (to whichever pool endpoint is
+ * now least loaded, optionally with a different model). The leg that answers first wins and
+ * the other is cancelled.
+ *
+ * <p>Hedging starts once {@value #MIN_SAMPLES} latencies have been seen, and a token bucket
+ * caps duplicates at a fixed share of requests so a slow provider is not hit with twice the
+ * load. Enabled with BRIEF_HEDGE_PERCENTILE; see {@link #fromEnv()}.
+ */
+final class Hedger {
+
+    private static final Logger LOG = Logger.getLogger(Hedger.class.getName());
+
+    private static final String ENV_PERCENTILE = "BRIEF_HEDGE_PERCENTILE";
+    private static final String ENV_MAX_PERCENT = "BRIEF_HEDGE_MAX_PERCENT";
+    private static final String ENV_MODEL = "BRIEF_HEDGE_MODEL";
+
+    private static final int MIN_SAMPLES = 20;
+    private static final int WINDOW = 256;
+    private static final long MIN_DELAY_NANOS = 100_000_000L;
+    private static final double MAX_CREDITS = 3;
+
+    /**
+     * One request attempt. It calls {@code firstByte} as its response starts arriving and
+     * again per chunk if it likes; the answer says whether this leg won and should deliver.
+     */
+    @FunctionalInterface
+    interface Leg<T> {
+        T run(
+            ChatCompletionCreateParams params,
+            Cancellation cancellation,
+            BooleanSupplier firstByte
+        );
+    }
+
+    /** Hedging counters, for {@code /endpoints}. */
+    record Stats(long requests, long hedged, long hedgeWins, double delayMillis) {}
+
+    private final double percentile;
+    private final double maxRatio;
+    private final String hedgeModel;
+
+    private final long[] samples = new long[WINDOW];
+    private int sampleCount = 0;
+    private int sampleNext = 0;
+    private double credits = 0;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hedged = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    // Runs once the hedge delay has passed, just before the duplicate starts; tests use it
+    // to land the primary's first byte in that gap
+    Runnable beforeHedge = () -> {};
+
+    Hedger(double percentile, double maxRatio, String hedgeModel) {
+        this.percentile = percentile;
+        this.maxRatio = maxRatio;
+        this.hedgeModel = hedgeModel;
+    }
+
+    /**
+     * Reads BRIEF_HEDGE_PERCENTILE (e.g. 95; unset disables hedging), BRIEF_HEDGE_MAX_PERCENT
+     * (share of requests that may be duplicated, default 10) and BRIEF_HEDGE_MODEL (model
+     * for the duplicate; defaults to the request's own).
+     */
+    static Hedger fromEnv() {
+        double percentile = envDouble(ENV_PERCENTILE, 0);
+        if (percentile <= 0 || percentile >= 100) return null;
+        double maxPercent = envDouble(ENV_MAX_PERCENT, 10);
+        String model = System.getenv(ENV_MODEL);
+        return new Hedger(
+            percentile,
+            Math.max(0, Math.min(100, maxPercent)) / 100.0,
+            (model == null || model.isBlank()) ? null : model.trim()
+        );
+    }
+
+    Stats stats() {
+        long delay = delayNanos();
+        return new Stats(
+            requests.get(),
+            hedged.get(),
+            hedgeWins.get(),
+            delay < 0 ? -1 : delay / 1_000_000.0
+        );
+    }
+
+    /**
+     * Runs the primary leg and, if it has not produced a byte within the hedge delay, a
+     * duplicate. Returns the result of whichever leg produced a byte first.
+     */
+    <T> T run(
+        ChatCompletionCreateParams params,
+        Cancellation cancellation,
+        Leg<T> leg
+    ) {
+        cancellation.throwIfCancelled();
+        requests.incrementAndGet();
+        Race<T> race = new Race<>(leg);
+        cancellation.onCancel(race::cancelAll);
+        try {
+            // Refused only when the request was cancelled before the primary started
+            if (!race.start(0, params)) cancellation.throwIfCancelled();
+            long delay = delayNanos();
+            if (delay >= 0 && !race.awaitDecision(delay) && takeCredit()) {
+                beforeHedge.run();
+                if (race.start(1, hedgeParams(params))) {
+                    hedged.incrementAndGet();
+                    LOG.fine(() ->
+                        "hedging after " + delay / 1_000_000 + " ms"
+                    );
+                } else {
+                    returnCredit();
+                }
+            }
+            T result = race.result();
+            if (race.winner() == 1) hedgeWins.incrementAndGet();
+            return result;
+        } finally {
+            cancellation.clear();
+        }
+    }
+
+    private ChatCompletionCreateParams hedgeParams(ChatCompletionCreateParams params) {
+        return hedgeModel == null ? params : params.toBuilder().model(hedgeModel).build();
+    }
+
+    synchronized void record(long firstByteNanos) {
+        samples[sampleNext] = firstByteNanos;
+        sampleNext = (sampleNext + 1) % WINDOW;
+        if (sampleCount < WINDOW) sampleCount++;
+        credits = Math.min(MAX_CREDITS, credits + maxRatio);
+    }
+
+    /** The configured percentile of recent first-byte times, or -1 until enough are seen. */
+    synchronized long delayNanos() {
+        if (sampleCount < MIN_SAMPLES) return -1;
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sampleCount) - 1;
+        return Math.max(MIN_DELAY_NANOS, sorted[Math.max(0, index)]);
+    }
+
+    private synchronized boolean takeCredit() {
+        if (credits < 1) return false;
+        credits -= 1;
+        return true;
+    }
+
+    private synchronized void returnCredit() {
+        credits = Math.min(MAX_CREDITS, credits + 1);
+    }
+
+    private static double envDouble(String name, double defaultValue) {
+        String env = System.getenv(name);
+        if (env == null || env.isBlank()) return defaultValue;
+        try {
+            return Double.parseDouble(env.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Up to two legs of one request; the first to produce a byte wins. The recorded latency
+     * runs from the primary's start to that byte, which is what the request waited.
+     */
+    private final class Race<T> {
+
+        private final Leg<T> leg;
+        private final long startedAt = System.nanoTime();
+        private final List<CompletableFuture<T>> results = new ArrayList<>(2);
+        private final List<Cancellation> cancellations = new ArrayList<>(2);
+        private final CompletableFuture<Void> decided = new CompletableFuture<>();
+        private final AtomicInteger winner = new AtomicInteger(-1);
+        private boolean cancelled = false;
+
+        Race(Leg<T> leg) {
+            this.leg = leg;
+        }
+
+        int winner() {
+            return winner.get();
+        }
+
+        /**
+         * Starts leg {@code index} unless the race is already decided or cancelled. Holds the
+         * same lock as {@link #cancelOthers} and {@link #cancelAll}, so a leg is either seen
+         * and cancelled by them or never started.
+         */
+        synchronized boolean start(int index, ChatCompletionCreateParams params) {
+            if (winner.get() >= 0 || cancelled) return false;
+            CompletableFuture<T> result = new CompletableFuture<>();
+            Cancellation legCancel = new Cancellation();
+            results.add(result);
+            cancellations.add(legCancel);
+            BooleanSupplier firstByte = () -> {
+                if (winner.compareAndSet(-1, index)) {
+                    record(System.nanoTime() - startedAt);
+                    decided.complete(null);
+                    cancelOthers(index);
+                    return true;
+                }
+                return winner.get() == index;
+            };
+            Thread.ofVirtual().name("hedge-leg-" + index).start(() -> {
+                try {
+                    T value = leg.run(params, legCancel, firstByte);
+                    firstByte.getAsBoolean();
+                    result.complete(value);
+                } catch (Throwable t) {
+                    result.completeExceptionally(t);
+                    // A leg that fails before any byte no longer holds up the decision
+                    if (winner.get() == -1) decided.complete(null);
+                }
+            });
+            return true;
+        }
+
+        /** Waits up to {@code nanos} for a first byte or failure; false on timeout. */
+        boolean awaitDecision(long nanos) {
+            try {
+                decided.get(nanos, TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return true;
+            } catch (ExecutionException e) {
+                return true;
+            }
+        }
+
+        /** The winning leg's result, or the last failure when no leg produced a byte. */
+        T result() {
+            List<CompletableFuture<T>> pending;
+            synchronized (this) {
+                pending = new ArrayList<>(results);
+            }
+            RuntimeException last = null;
+            while (!pending.isEmpty()) {
+                try {
+                    CompletableFuture.anyOf(pending.toArray(CompletableFuture[]::new)).join();
+                } catch (CompletionException | CancellationException ignored) {
+                    // Inspected below
+                }
+                int w = winner.get();
+                if (w >= 0) return join(results.get(w));
+                for (int i = pending.size() - 1; i >= 0; i--) {
+                    CompletableFuture<T> f = pending.get(i);
+                    if (!f.isDone()) continue;
+                    try {
+                        return f.join();
+                    } catch (RuntimeException e) {
+                        last = unwrap(e);
+                        pending.remove(i);
+                    }
+                }
+            }
+            throw last;
+        }
+
+        synchronized void cancelAll() {
+            cancelled = true;
+            for (Cancellation c : cancellations) c.cancel();
+        }
+
+        private synchronized void cancelOthers(int keep) {
+            for (int i = 0; i < cancellations.size(); i++) {
+                if (i != keep) cancellations.get(i).cancel();
+            }
+        }
+
+        private T join(CompletableFuture<T> future) {
+            try {
+                return future.join();
+            } catch (RuntimeException e) {
+                throw unwrap(e);
+            }
+        }
+
+        private RuntimeException unwrap(RuntimeException e) {
+            if (e instanceof CompletionException && e.getCause() != null) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtime) return runtime;
+                if (cause instanceof Error error) throw error;
+            }
+            return e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.models.chat.completions.ChatCompletionMessageParam;
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Request messages for a conversation, converted once per {@link ChatMessage} and reused.
+ *
+ * <p>Conversations only grow, so the converted prefix is kept and each request converts just
+ * the messages appended since the last one. Conversions are also remembered by message id,
+ * so switching conversations or rebuilding the prefix never re-serializes a message. Internal
+ * messages are sent only while they are the newest message, so they stay out of the prefix
+ * and are added at the end when they qualify.
+ */
+final class MessageParamCache {
+
+    private final ChatCompletionMessageParam systemPrompt;
+    private final Function<ChatMessage, ChatCompletionMessageParam> converter;
+    private final Map<String, Optional<ChatCompletionMessageParam>> byId = new HashMap<>();
+
+    // Converted prefix of `source`: the system prompt, then every non-internal message
+    private final List<ChatCompletionMessageParam> prefix = new ArrayList<>();
+    private List<ChatMessage> source = null;
+    private int converted = 0;
+    private String lastConvertedId = null;
+
+    /**
+     * @param converter returns the param for a message, or {@code null} when the message is
+     *                  not sent to the model
+     */
+    MessageParamCache(
+        ChatCompletionMessageParam systemPrompt,
+        Function<ChatMessage, ChatCompletionMessageParam> converter
+    ) {
+        this.systemPrompt = systemPrompt;
+        this.converter = converter;
+    }
+
+    /** Uses {@code param} for the message with this id instead of converting it later. */
+    synchronized void put(String messageId, ChatCompletionMessageParam param) {
+        if (messageId != null) byId.put(messageId, Optional.ofNullable(param));
+    }
+
+    /** Returns the request messages for {@code messages}, converting only new ones. */
+    synchronized List<ChatCompletionMessageParam> params(List<ChatMessage> messages) {
+        if (!extendsPrefix(messages)) {
+            prefix.clear();
+            prefix.add(systemPrompt);
+            source = messages;
+            converted = 0;
+            lastConvertedId = null;
+        }
+
+        int size = messages.size();
+        for (int i = converted; i < size; i++) {
+            ChatMessage m = messages.get(i);
+            if (m.source() != ChatMessage.Source.INTERNAL) {
+                param(m).ifPresent(prefix::add);
+            }
+        }
+        converted = size;
+        lastConvertedId = (size == 0) ? null : messages.get(size - 1).id();
+
+        List<ChatCompletionMessageParam> out = new ArrayList<>(prefix.size() + 1);
+        out.addAll(prefix);
+        if (size > 0 && messages.get(size - 1).source() == ChatMessage.Source.INTERNAL) {
+            param(messages.get(size - 1)).ifPresent(out::add);
+        }
+        return out;
+    }
+
+    private boolean extendsPrefix(List<ChatMessage> messages) {
+        if (messages != source || messages.size() < converted) return false;
+        if (converted == 0) return true;
+        String id = messages.get(converted - 1).id();
+        return id != null && id.equals(lastConvertedId);
+    }
+
+    private Optional<ChatCompletionMessageParam> param(ChatMessage m) {
+        if (m.id() == null) return Optional.ofNullable(converter.apply(m));
+        return byId.computeIfAbsent(m.id(), id -> Optional.ofNullable(converter.apply(m)));
+    }
+}
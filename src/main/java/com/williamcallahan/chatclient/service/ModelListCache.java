@@ -0,0 +1,164 @@
+package com.williamcallahan.chatclient.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Model ids for one base URL, cached in memory and on disk so the model palette opens
+ * without waiting on {@code /models}.
+ *
+ * <p>Entries older than the TTL are still served ({@link Snapshot#stale()}) while the
+ * caller refreshes them in the background. Concurrent refreshes share one fetch.
+ */
+public final class ModelListCache {
+
+    private static final Logger LOG = Logger.getLogger(
+        ModelListCache.class.getName()
+    );
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** Default time before a cached list is refreshed. */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    /** Cached model ids and whether they are past the TTL. */
+    public record Snapshot(List<String> models, Instant fetchedAt, boolean stale) {}
+
+    /** On-disk form of a cached list. */
+    record CacheFile(
+        @JsonProperty("base_url") String baseUrl,
+        @JsonProperty("fetched_at") long fetchedAtMillis,
+        @JsonProperty("models") List<String> models
+    ) {}
+
+    private final String baseUrl;
+    private final Path file;
+    private final Duration ttl;
+    private final Supplier<List<String>> fetcher;
+    private final Clock clock;
+
+    private CacheFile memory = null;
+    private boolean diskChecked = false;
+    private CompletableFuture<List<String>> inFlight = null;
+
+    /** Caches {@link OpenAiService#modelChoices()} under {@code cacheDir}. */
+    public ModelListCache(OpenAiService openAi, Path cacheDir) {
+        this(
+            openAi.baseUrl() == null ? "default" : openAi.baseUrl(),
+            cacheDir,
+            DEFAULT_TTL,
+            openAi::modelChoices,
+            Clock.systemUTC()
+        );
+    }
+
+    ModelListCache(
+        String baseUrl,
+        Path cacheDir,
+        Duration ttl,
+        Supplier<List<String>> fetcher,
+        Clock clock
+    ) {
+        this.baseUrl = baseUrl;
+        this.file = cacheDir.resolve("models-" + fileKey(baseUrl) + ".json");
+        this.ttl = ttl;
+        this.fetcher = fetcher;
+        this.clock = clock;
+    }
+
+    /** Returns the cached list, loading it from disk on first use, or null if there is none. */
+    public synchronized Snapshot cached() {
+        if (memory == null && !diskChecked) {
+            diskChecked = true;
+            memory = read();
+        }
+        if (memory == null || memory.models().isEmpty()) return null;
+        Instant fetchedAt = Instant.ofEpochMilli(memory.fetchedAtMillis());
+        boolean stale = fetchedAt.plus(ttl).isBefore(clock.instant());
+        return new Snapshot(memory.models(), fetchedAt, stale);
+    }
+
+    /**
+     * Fetches the list on a virtual thread and stores it in memory and on disk. A refresh
+     * already running is joined rather than repeated.
+     */
+    public synchronized CompletableFuture<List<String>> refresh() {
+        if (inFlight != null) return inFlight;
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        inFlight = future;
+        Thread.ofVirtual().name("model-list-refresh").start(() -> {
+            try {
+                List<String> models = List.copyOf(fetcher.get());
+                store(models);
+                future.complete(models);
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    inFlight = null;
+                }
+            }
+        });
+        return future;
+    }
+
+    private void store(List<String> models) {
+        CacheFile entry = new CacheFile(baseUrl, clock.millis(), models);
+        synchronized (this) {
+            memory = entry;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            JSON.writeValue(tmp.toFile(), entry);
+            Files.move(
+                tmp,
+                file,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Could not write model cache " + file, e);
+        }
+    }
+
+    private CacheFile read() {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            CacheFile entry = JSON.readValue(file.toFile(), CacheFile.class);
+            // Guard against a hash collision or a hand-copied file
+            return baseUrl.equals(entry.baseUrl()) && entry.models() != null
+                ? entry
+                : null;
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Ignoring unreadable model cache " + file, e);
+            return null;
+        }
+    }
+
+    private static String fileKey(String baseUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                baseUrl.getBytes(StandardCharsets.UTF_8)
+            );
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+}
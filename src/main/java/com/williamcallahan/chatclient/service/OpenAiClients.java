@@ -0,0 +1,102 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.client.OpenAIClient;
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.openai.errors.OpenAIServiceException;
+import com.openai.models.models.ModelRetrieveParams;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Process-wide OpenAI clients, one per base URL and API key.
+ *
+ * <p>Each client owns an OkHttp connection pool and dispatcher, so building one per screen
+ * (every {@code /new} or {@code /clear}) threw away warm connections and paid for DNS, TCP
+ * and TLS again. Clients created here live for the whole process and share one virtual-thread
+ * executor for async calls and stream callbacks. A new client opens a connection in the
+ * background right away, so the first prompt finds it ready.
+ */
+public final class OpenAiClients {
+
+    private static final Logger LOG = Logger.getLogger(
+        OpenAiClients.class.getName()
+    );
+
+    // A terminal chat rarely needs more than a request, a hedge and a model list at once
+    private static final int MAX_IDLE_CONNECTIONS = 4;
+    private static final Duration KEEP_ALIVE = Duration.ofMinutes(5);
+    // No provider serves this id, so the pre-warm request comes back as a small 404
+    private static final String PREWARM_MODEL = "brief-prewarm";
+
+    private static final ExecutorService EXECUTOR =
+        Executors.newVirtualThreadPerTaskExecutor();
+    private static final Map<Key, OpenAIClient> CLIENTS = new ConcurrentHashMap<>();
+
+    /** Registry key; the API key is kept only to tell clients apart and is never logged. */
+    private record Key(String baseUrl, String apiKey) {
+        @Override
+        public String toString() {
+            return baseUrl;
+        }
+    }
+
+    private OpenAiClients() {}
+
+    /** Returns the shared client for this endpoint, creating and pre-warming it on first use. */
+    public static OpenAIClient get(String baseUrl, String apiKey) {
+        Key key = new Key(baseUrl, apiKey);
+        OpenAIClient existing = CLIENTS.get(key);
+        if (existing != null) return existing;
+
+        boolean[] created = { false };
+        OpenAIClient client = CLIENTS.computeIfAbsent(key, k -> {
+            created[0] = true;
+            return build(k);
+        });
+        if (created[0]) prewarm(key, client);
+        return client;
+    }
+
+    private static OpenAIClient build(Key key) {
+        return OpenAIOkHttpClient.builder()
+            .apiKey(key.apiKey())
+            .baseUrl(key.baseUrl())
+            .maxIdleConnections(MAX_IDLE_CONNECTIONS)
+            .keepAliveDuration(KEEP_ALIVE)
+            .dispatcherExecutorService(EXECUTOR)
+            .streamHandlerExecutor(EXECUTOR)
+            .build();
+    }
+
+    /**
+     * Sends one tiny request in the background (a lookup of a model id that does not exist)
+     * so the pool holds an open, TLS-established connection without paying for a full model
+     * list. Any answer, the expected 404 included, leaves the connection warm; failures are
+     * ignored and the first real request reports them properly.
+     */
+    private static void prewarm(Key key, OpenAIClient client) {
+        EXECUTOR.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                client
+                    .withOptions(o -> o.maxRetries(0))
+                    .models()
+                    .retrieve(ModelRetrieveParams.builder().model(PREWARM_MODEL).build());
+            } catch (OpenAIServiceException e) {
+                // The server answered, so the connection is up
+            } catch (RuntimeException e) {
+                LOG.log(Level.FINE, "pre-warm of " + key + " failed", e);
+                return;
+            }
+            LOG.fine(() ->
+                "pre-warmed " + key + " in " +
+                (System.nanoTime() - start) / 1_000_000 + " ms"
+            );
+        });
+    }
+}
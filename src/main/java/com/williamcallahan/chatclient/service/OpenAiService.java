@@ -1,18 +1,18 @@
 package com.williamcallahan.chatclient.service;
 
 import com.openai.client.OpenAIClient;
-import com.openai.client.okhttp.OpenAIOkHttpClient;
 import com.openai.models.models.Model;
 import com.williamcallahan.chatclient.Config;
 import com.williamcallahan.chatclient.ConfigException;
 
 import java.util.List;
 
-/** Shared OpenAI client configuration and utilities. */
+/** OpenAI client for the configured endpoint (shared via {@link OpenAiClients}) and utilities. */
 public final class OpenAiService {
 
     private final OpenAIClient client;
     private final String baseUrl;
+    private final EndpointPool endpoints;
 
     private static final String DEFAULT_BASE_URL = "https://api.openai.com/v1";
 
@@ -51,12 +51,21 @@ public final class OpenAiService {
                 """.formatted(target));
         }
 
-        // Build client with resolved API key and base URL (env > config > default)
-        this.client = OpenAIOkHttpClient.builder()
-            .apiKey(apiKey)
-            .baseUrl(resolvedBaseUrl != null ? resolvedBaseUrl : DEFAULT_BASE_URL)
-            .build();
-        this.baseUrl = resolvedBaseUrl;
+        // Shared clients for the resolved API key and base URL(s) (env > config > default)
+        List<EndpointPool.Spec> specs = EndpointPool.parse(config.resolveBaseUrls());
+        if (specs.isEmpty()) {
+            specs = List.of(
+                new EndpointPool.Spec(
+                    resolvedBaseUrl != null ? resolvedBaseUrl : DEFAULT_BASE_URL,
+                    1
+                )
+            );
+            this.baseUrl = resolvedBaseUrl;
+        } else {
+            this.baseUrl = specs.getFirst().baseUrl();
+        }
+        this.endpoints = EndpointPool.shared(specs, apiKey);
+        this.client = endpoints.primary();
     }
 
     public OpenAIClient client() {
@@ -67,6 +76,11 @@ public final class OpenAiService {
         return baseUrl;
     }
 
+    /** Endpoints chat completions are spread across; a single-entry pool by default. */
+    public EndpointPool endpoints() {
+        return endpoints;
+    }
+
     public List<String> modelChoices() {
         return client.models().list().autoPager().stream()
             .map(Model::id)
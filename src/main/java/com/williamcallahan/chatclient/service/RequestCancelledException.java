@@ -0,0 +1,9 @@
+package com.williamcallahan.chatclient.service;
+
+/** Thrown from the request thread when its {@link Cancellation} was cancelled. */
+public final class RequestCancelledException extends RuntimeException {
+
+    public RequestCancelledException() {
+        super("Request cancelled");
+    }
+}
@@ -0,0 +1,164 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.core.JsonValue;
+import com.openai.models.FunctionDefinition;
+import com.openai.models.responses.EasyInputMessage;
+import com.openai.models.responses.FunctionTool;
+import com.openai.models.responses.Response;
+import com.openai.models.responses.ResponseFunctionToolCall;
+import com.openai.models.responses.ResponseInputItem;
+import com.openai.models.responses.ResponseOutputItem;
+import com.openai.models.responses.ResponseOutputMessage;
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import com.williamcallahan.chatclient.domain.ToolCall;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts conversation messages to Responses API input items, and response output back.
+ *
+ * <p>The same messages are sent as with chat completions: user input, internal messages
+ * only while they are the newest, the model's own output and tool results. A chained
+ * request ({@link #since}) leaves out the model's output, which the provider already has.
+ */
+final class ResponsesInput {
+
+    private ResponsesInput() {}
+
+    /** Every message of the conversation, for a request without a previous response. */
+    static List<ResponseInputItem> replay(List<ChatMessage> messages) {
+        return convert(messages, 0, true);
+    }
+
+    /**
+     * Messages after the one with id {@code afterId}, for a request continuing the response
+     * that ended there. Returns null when that message is no longer in the conversation.
+     */
+    static List<ResponseInputItem> since(List<ChatMessage> messages, String afterId) {
+        if (afterId == null) return null;
+        for (int i = messages.size() - 1; i >= 0; i--) {
+            if (afterId.equals(messages.get(i).id())) {
+                return convert(messages, i + 1, false);
+            }
+        }
+        return null;
+    }
+
+    private static List<ResponseInputItem> convert(
+        List<ChatMessage> messages,
+        int from,
+        boolean includeAssistant
+    ) {
+        List<ResponseInputItem> items = new ArrayList<>();
+        int last = messages.size() - 1;
+        for (int i = from; i <= last; i++) {
+            ChatMessage m = messages.get(i);
+            if (m.source() == ChatMessage.Source.INTERNAL && i != last) continue;
+            String content = m.content() == null ? "" : m.content();
+            switch (m.role()) {
+                case SYSTEM -> {
+                    if (!content.isBlank()) {
+                        items.add(message(EasyInputMessage.Role.SYSTEM, content));
+                    }
+                }
+                case USER -> {
+                    if (ToolExecutor.shouldIncludeUserMessage(m, content)) {
+                        items.add(message(EasyInputMessage.Role.USER, content));
+                    }
+                }
+                case ASSISTANT -> {
+                    if (includeAssistant) addAssistant(items, m, content);
+                }
+                case TOOL -> {
+                    if (m.toolCallId() != null && !content.isBlank()) {
+                        items.add(functionOutput(m.toolCallId(), content));
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    private static void addAssistant(
+        List<ResponseInputItem> items,
+        ChatMessage m,
+        String content
+    ) {
+        if (m.source() != ChatMessage.Source.LLM_OUTPUT) return;
+        if (!content.isBlank()) {
+            items.add(message(EasyInputMessage.Role.ASSISTANT, content));
+        }
+        if (m.toolCalls() == null) return;
+        for (ToolCall tc : m.toolCalls()) {
+            items.add(
+                ResponseInputItem.ofFunctionCall(
+                    ResponseFunctionToolCall.builder()
+                        .callId(tc.providerId())
+                        .name(tc.name())
+                        .arguments(
+                            tc.rawArguments() != null
+                                ? tc.rawArguments()
+                                : ToolExecutor.toJson(tc.arguments())
+                        )
+                        .build()
+                )
+            );
+        }
+    }
+
+    static ResponseInputItem functionOutput(String callId, String output) {
+        return ResponseInputItem.ofFunctionCallOutput(
+            ResponseInputItem.FunctionCallOutput.builder()
+                .callId(callId)
+                .output(output)
+                .build()
+        );
+    }
+
+    private static ResponseInputItem message(EasyInputMessage.Role role, String text) {
+        return ResponseInputItem.ofEasyInputMessage(
+            EasyInputMessage.builder().role(role).content(text).build()
+        );
+    }
+
+    /** The same tool as a Responses function tool; the JSON schema is copied as-is. */
+    static FunctionTool functionTool(FunctionDefinition definition) {
+        Map<String, JsonValue> schema = definition
+            .parameters()
+            .map(p -> p._additionalProperties())
+            .orElse(Map.of());
+        FunctionTool.Builder builder = FunctionTool.builder()
+            .name(definition.name())
+            .parameters(
+                FunctionTool.Parameters.builder()
+                    .putAllAdditionalProperties(schema)
+                    .build()
+            )
+            .strict(definition.strict().orElse(false));
+        definition.description().ifPresent(builder::description);
+        return builder.build();
+    }
+
+    /** Concatenated output text of a response. */
+    static String outputText(Response response) {
+        StringBuilder sb = new StringBuilder();
+        for (ResponseOutputItem item : response.output()) {
+            if (!item.isMessage()) continue;
+            for (ResponseOutputMessage.Content c : item.asMessage().content()) {
+                if (c.isOutputText()) sb.append(c.asOutputText().text());
+            }
+        }
+        return sb.toString();
+    }
+
+    /** Function calls requested by a response, in output order. */
+    static List<ResponseFunctionToolCall> functionCalls(Response response) {
+        return response
+            .output()
+            .stream()
+            .filter(ResponseOutputItem::isFunctionCall)
+            .map(ResponseOutputItem::asFunctionCall)
+            .toList();
+    }
+}
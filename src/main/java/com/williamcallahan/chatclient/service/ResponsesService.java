@@ -0,0 +1,84 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.client.OpenAIClient;
+import com.openai.errors.OpenAIServiceException;
+import com.openai.models.responses.Response;
+import com.openai.models.responses.ResponseCreateParams;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Responses API wrapper. Unlike chat completions, the provider can keep each response and
+ * continue from it ({@code previous_response_id}), so a request only carries the new input.
+ */
+public final class ResponsesService {
+
+    /** A response and the base URL of the endpoint that stored it. */
+    public record Created(Response response, String baseUrl) {}
+
+    private final EndpointPool endpoints;
+
+    public ResponsesService(OpenAiService openAi) {
+        this(openAi.endpoints());
+    }
+
+    ResponsesService(EndpointPool endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Creates a response through the async client so it can be aborted. Goes to the best
+     * endpoint in the pool and fails over to another on connection errors.
+     *
+     * @param params       response parameters (model, input, tools, previous response, etc.)
+     * @param cancellation cancelling it cancels the HTTP call and releases its connection
+     * @param storedOn     base URL that stored {@code params}' previous response, tried
+     *                     first since other endpoints do not know that id; null for none
+     * @return the response, never null per OpenAI SDK contract, and where it was stored
+     * @throws RequestCancelledException when cancelled before the response arrived
+     * @throws com.openai.core.http.HttpRequestException on network or API errors
+     */
+    public Created create(
+        ResponseCreateParams params,
+        Cancellation cancellation,
+        String storedOn
+    ) {
+        EndpointPool.Served<Response> served = endpoints.execute(
+            storedOn,
+            (client, firstByte) -> createOn(client, params, cancellation)
+        );
+        return new Created(served.value(), served.baseUrl());
+    }
+
+    private static Response createOn(
+        OpenAIClient client,
+        ResponseCreateParams params,
+        Cancellation cancellation
+    ) {
+        cancellation.throwIfCancelled();
+        CompletableFuture<Response> future = client
+            .async()
+            .responses()
+            .create(params);
+        cancellation.onCancel(() -> future.cancel(true));
+        try {
+            return ChatCompletionService.await(future, cancellation);
+        } finally {
+            cancellation.clear();
+        }
+    }
+
+    /** Whether the provider has no {@code /responses} endpoint at all. */
+    static boolean isUnsupported(OpenAIServiceException e) {
+        int status = e.statusCode();
+        return status == 404 || status == 405 || status == 501;
+    }
+
+    /**
+     * Whether a request naming a previous response was refused, e.g. because the provider
+     * does not store responses or this endpoint never saw that one.
+     */
+    static boolean isChainRejected(OpenAIServiceException e) {
+        int status = e.statusCode();
+        return status == 400 || status == 404 || status == 422;
+    }
+}
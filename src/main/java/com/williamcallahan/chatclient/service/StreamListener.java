@@ -0,0 +1,21 @@
+package com.williamcallahan.chatclient.service;
+
+/**
+ * Receives incremental output while a chat completion streams in.
+ * Callbacks run on the thread performing the request; implementations should hand
+ * work off quickly (e.g. enqueue it for the UI thread).
+ */
+public interface StreamListener {
+
+    /** Listener that ignores everything. */
+    StreamListener NONE = new StreamListener() {};
+
+    /** Called when the first content or tool-call delta of a request arrives. */
+    default void onFirstToken(long nanosSinceRequest) {}
+
+    /** Called with each fragment of assistant text as it arrives. */
+    default void onText(String delta) {}
+
+    /** Called once per tool call, as soon as its function name is known. */
+    default void onToolCall(String name) {}
+}
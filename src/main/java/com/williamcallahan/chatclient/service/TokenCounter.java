@@ -23,6 +23,14 @@ public final class TokenCounter {
         return (int) Math.ceil(text.length() / CHARS_PER_TOKEN);
     }
 
+    /**
+     * Longest text, in chars, that {@link #estimateTokens(String)} puts at or under
+     * {@code tokens}.
+     */
+    public static long maxCharsFor(int tokens) {
+        return (long) Math.floor(Math.max(0, tokens) * CHARS_PER_TOKEN);
+    }
+
     /**
      * Estimates token count for a conversation (all visible messages).
      */
@@ -2,17 +2,32 @@ package com.williamcallahan.chatclient.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openai.errors.OpenAIServiceException;
 import com.openai.models.chat.completions.*;
+import com.openai.models.responses.FunctionTool;
+import com.openai.models.responses.Response;
+import com.openai.models.responses.ResponseCreateParams;
+import com.openai.models.responses.ResponseFunctionToolCall;
+import com.openai.models.responses.ResponseInputItem;
 import com.williamcallahan.chatclient.domain.ChatMessage;
 import com.williamcallahan.chatclient.domain.Conversation;
 import com.williamcallahan.chatclient.domain.Role;
 import com.williamcallahan.chatclient.domain.ToolCall;
 import com.williamcallahan.chatclient.service.tools.Tool;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,6 +42,20 @@ public final class ToolExecutor {
         new TypeReference<>() {};
     private static final int MAX_ITERATIONS = 3;
 
+    private static final String ENV_TOOL_TIMEOUT = "BRIEF_TOOL_TIMEOUT_SECONDS";
+    private static final String ENV_TOOL_CONCURRENCY = "BRIEF_TOOL_CONCURRENCY";
+    private static final Duration DEFAULT_TOOL_TIMEOUT = Duration.ofSeconds(30);
+    private static final int DEFAULT_TOOL_CONCURRENCY = 4;
+
+    // Conversation metadata: the last stored response, the last message it covers and the
+    // endpoint that stored it (only that one knows the id)
+    static final String META_PREVIOUS_RESPONSE = "responses.previous_response_id";
+    static final String META_THROUGH_MESSAGE = "responses.through_message_id";
+    static final String META_STORED_ON = "responses.endpoint";
+
+    // Refusals in a row before chaining is given up on for the session
+    private static final int MAX_CHAIN_REJECTIONS = 3;
+
     private static final String SYSTEM_PROMPT = """
         You are a helpful terminal chat assistant. Follow these rules strictly:
 
@@ -38,26 +67,169 @@ public final class ToolExecutor {
         """;
 
     private final ChatCompletionService chat;
+    private final ResponsesService responses;
     private final List<Tool> tools;
+    private final List<FunctionTool> responseTools;
+    private final Duration toolTimeout;
+    private final int maxConcurrentTools;
+    private final MessageParamCache messageParams = new MessageParamCache(
+        ChatCompletionMessageParam.ofSystem(
+            ChatCompletionSystemMessageParam.builder().content(SYSTEM_PROMPT).build()
+        ),
+        ToolExecutor::toParam
+    );
+
+    // Cleared for the rest of the session once the provider turns either feature down
+    private volatile boolean responsesSupported = true;
+    private volatile boolean chainingSupported = true;
+    private final AtomicInteger chainRejections = new AtomicInteger();
 
+    /** Uses the tool timeout and concurrency cap from the environment, or their defaults. */
     public ToolExecutor(ChatCompletionService chat, List<Tool> tools) {
+        this(chat, null, tools);
+    }
+
+    /**
+     * Like {@link #ToolExecutor(ChatCompletionService, List)}, and answers conversations of
+     * the {@link Conversation.ApiFamily#RESPONSES} family through {@code responses}.
+     */
+    public ToolExecutor(
+        ChatCompletionService chat,
+        ResponsesService responses,
+        List<Tool> tools
+    ) {
+        this(
+            chat,
+            responses,
+            tools,
+            Duration.ofSeconds(
+                envPositiveInt(
+                    ENV_TOOL_TIMEOUT,
+                    (int) DEFAULT_TOOL_TIMEOUT.toSeconds()
+                )
+            ),
+            envPositiveInt(ENV_TOOL_CONCURRENCY, DEFAULT_TOOL_CONCURRENCY)
+        );
+    }
+
+    /**
+     * @param toolTimeout        how long a single tool call may run before its result is
+     *                           replaced with a timeout error
+     * @param maxConcurrentTools how many tool calls of one model turn run at the same time
+     */
+    public ToolExecutor(
+        ChatCompletionService chat,
+        List<Tool> tools,
+        Duration toolTimeout,
+        int maxConcurrentTools
+    ) {
+        this(chat, null, tools, toolTimeout, maxConcurrentTools);
+    }
+
+    ToolExecutor(
+        ChatCompletionService chat,
+        ResponsesService responses,
+        List<Tool> tools,
+        Duration toolTimeout,
+        int maxConcurrentTools
+    ) {
         this.chat = chat;
+        this.responses = responses;
         this.tools = tools;
+        this.responseTools = (responses == null)
+            ? List.of()
+            : tools
+                .stream()
+                .map(t -> ResponsesInput.functionTool(t.definition()))
+                .toList();
+        this.toolTimeout = toolTimeout;
+        this.maxConcurrentTools = Math.max(1, maxConcurrentTools);
     }
 
     public String respond(Conversation conversation, String modelOverride) {
-        ChatCompletionCreateParams.Builder builder = buildParams(
-            conversation,
-            modelOverride
-        );
+        return respond(conversation, modelOverride, null, new Cancellation()).text();
+    }
+
+    /**
+     * The final answer of a turn and the usage of the request that produced it.
+     *
+     * @param usage see {@link UsageStats}; null when the model returned no message
+     */
+    public record Reply(String text, Map<String, Object> usage) {}
+
+    /**
+     * Runs the tool loop until the model produces a final answer.
+     *
+     * <p>When cancelled, the HTTP call in flight is aborted and no further iterations run.
+     * Tool calls already requested by the model still get a result (an error for those cut
+     * short), so the saved conversation stays valid for the next request.
+     *
+     * <p>Intermediate assistant messages saved here carry their own request's usage; the
+     * returned reply carries the final request's, for the caller to store with the answer.
+     *
+     * <p>Conversations of the Responses family go through the Responses API when this
+     * executor has a {@link ResponsesService} and the provider supports it; see
+     * {@link #respondWithResponses}.
+     *
+     * @param listener     when non-null, each request is streamed and its deltas reported
+     *                     here; when null, the blocking non-streaming call is used
+     * @param cancellation lets another thread abort the loop
+     * @return the final assistant text and its usage
+     * @throws RequestCancelledException when cancelled before a final answer arrived
+     */
+    public Reply respond(
+        Conversation conversation,
+        String modelOverride,
+        StreamListener listener,
+        Cancellation cancellation
+    ) {
+        long turnStart = System.nanoTime();
+        String model = modelOverride != null && !modelOverride.isBlank()
+            ? modelOverride
+            : conversation.getDefaultModel();
+        if (
+            conversation.getApiFamily() == Conversation.ApiFamily.RESPONSES &&
+            responses != null &&
+            responsesSupported
+        ) {
+            try {
+                return respondWithResponses(conversation, model, cancellation);
+            } catch (ResponsesUnsupportedException e) {
+                LOG.info("Provider has no Responses API; using chat completions");
+                responsesSupported = false;
+            }
+        }
+        ChatCompletionCreateParams.Builder builder =
+            ChatCompletionCreateParams.builder()
+                .model(model)
+                .temperature(0.3)
+                .messages(messageParams.params(conversation.getMessages()));
+        if (listener != null) {
+            // Providers only report token counts on a stream when asked to
+            builder.streamOptions(
+                ChatCompletionStreamOptions.builder().includeUsage(true).build()
+            );
+        }
         for (Tool tool : tools) {
             builder.addFunctionTool(tool.definition());
         }
 
-        String model = builder.build().model().toString();
-
         for (int step = 0; step < MAX_ITERATIONS; step++) {
-            ChatCompletion completion = chat.complete(builder.build());
+            // The first build includes converting the conversation history
+            long buildStart = (step == 0) ? turnStart : System.nanoTime();
+            ChatCompletionCreateParams params = builder.build();
+            long sendStart = System.nanoTime();
+            long[] firstByteAt = { -1 };
+            ChatCompletion completion = (listener == null)
+                ? chat.complete(params, cancellation)
+                : chat.stream(params, timed(listener, firstByteAt), cancellation);
+            long end = System.nanoTime();
+            Map<String, Object> usage = UsageStats.forRequest(
+                sendStart - buildStart,
+                (firstByteAt[0] < 0 ? end : firstByteAt[0]) - sendStart,
+                end - sendStart,
+                completion.usage().orElse(null)
+            );
             ChatCompletionMessage msg = completion
                 .choices()
                 .stream()
@@ -66,126 +238,490 @@ public final class ToolExecutor {
                 .orElse(null);
             if (msg == null) {
                 LOG.warning("API returned no message in completion response");
-                return "Unable to get a response. Please try again.";
+                return new Reply("Unable to get a response. Please try again.", null);
             }
 
             List<ChatCompletionMessageToolCall> toolCalls = msg
                 .toolCalls()
                 .orElse(List.of());
             if (toolCalls.isEmpty()) {
-                return msg.content().orElse("");
+                usage.put(
+                    UsageStats.TURN_MS,
+                    UsageStats.millis(System.nanoTime() - turnStart)
+                );
+                return new Reply(msg.content().orElse(""), usage);
             }
 
-            builder.addMessage(msg.toParam());
+            ChatCompletionAssistantMessageParam assistantParam = msg.toParam();
+            builder.addMessage(assistantParam);
             List<ChatCompletionMessageToolCall> functionCalls = toolCalls
                 .stream()
                 .filter(ChatCompletionMessageToolCall::isFunction)
                 .toList();
 
-            saveAssistantMessage(conversation, msg, functionCalls, model);
+            List<PendingCall> pending = functionCalls
+                .stream()
+                .map(ToolExecutor::toPendingCall)
+                .toList();
+            long toolStart = System.nanoTime();
+            List<Object> results = executeAll(pending, cancellation);
+            usage.put(
+                UsageStats.TOOL_MS,
+                UsageStats.millis(System.nanoTime() - toolStart)
+            );
 
-            for (ChatCompletionMessageToolCall tc : functionCalls) {
-                executeAndSave(conversation, builder, tc, model);
+            // Saved once the tools finish so the message can carry their run time
+            String assistantId = saveAssistantMessage(
+                conversation,
+                msg,
+                functionCalls,
+                model,
+                usage
+            );
+            // Later requests resend the provider's own message, raw arguments included
+            messageParams.put(
+                assistantId,
+                ChatCompletionMessageParam.ofAssistant(assistantParam)
+            );
+            for (int i = 0; i < pending.size(); i++) {
+                saveToolResult(
+                    conversation,
+                    builder,
+                    pending.get(i),
+                    results.get(i),
+                    model
+                );
             }
+            cancellation.throwIfCancelled();
         }
-        return "ERROR: tool loop did not resolve to a final assistant message.";
+        return new Reply(
+            "ERROR: tool loop did not resolve to a final assistant message.",
+            null
+        );
     }
 
-    private void saveAssistantMessage(
+    /** Passes events through, noting when the first token arrived. */
+    private static StreamListener timed(StreamListener listener, long[] firstByteAt) {
+        return new StreamListener() {
+            @Override
+            public void onFirstToken(long nanosSinceRequest) {
+                if (firstByteAt[0] < 0) firstByteAt[0] = System.nanoTime();
+                listener.onFirstToken(nanosSinceRequest);
+            }
+
+            @Override
+            public void onText(String delta) {
+                listener.onText(delta);
+            }
+
+            @Override
+            public void onToolCall(String name) {
+                listener.onToolCall(name);
+            }
+        };
+    }
+
+    private String saveAssistantMessage(
         Conversation conversation,
         ChatCompletionMessage msg,
         List<ChatCompletionMessageToolCall> functionCalls,
-        String model
+        String model,
+        Map<String, Object> usage
     ) {
         List<ToolCall> domainCalls = functionCalls
             .stream()
             .map(this::toDomainToolCall)
             .toList();
+        return saveAssistantMessage(
+            conversation,
+            msg.content().orElse(""),
+            domainCalls,
+            model,
+            usage
+        );
+    }
+
+    private String saveAssistantMessage(
+        Conversation conversation,
+        String content,
+        List<ToolCall> domainCalls,
+        String model,
+        Map<String, Object> usage
+    ) {
+        String id = "asst_" + shortId();
         conversation.addMessage(
             new ChatMessage(
-                "asst_" + shortId(),
+                id,
                 conversation.getId(),
                 conversation.getMessages().size(),
                 Role.ASSISTANT,
                 ChatMessage.Source.LLM_OUTPUT,
-                msg.content().orElse(""),
+                content,
                 OffsetDateTime.now(ZoneOffset.UTC),
                 model,
                 conversation.getProvider().name().toLowerCase(),
                 null,
                 domainCalls,
                 null,
-                null,
+                usage,
                 null
             )
         );
+        return id;
     }
 
-    private void executeAndSave(
+    /**
+     * The tool loop over the Responses API. The provider stores each response and the next
+     * request names it as {@code previous_response_id}, so it carries only what was added
+     * since: the new user message, or the tool outputs. The response id and the last message
+     * it covers are kept in the conversation metadata, so the chain carries over between
+     * turns.
+     *
+     * <p>A chained request goes first to the endpoint that stored the previous response.
+     * When the chain cannot be continued (the message it ended at is gone, or the provider
+     * refuses the id, say because the context grew too long) that request replays the whole
+     * conversation instead. Only after several refusals in a row does chaining stay off for
+     * this session.
+     *
+     * @throws ResponsesUnsupportedException when the provider has no Responses API
+     */
+    private Reply respondWithResponses(
         Conversation conversation,
-        ChatCompletionCreateParams.Builder builder,
-        ChatCompletionMessageToolCall toolCall,
-        String model
+        String model,
+        Cancellation cancellation
+    ) {
+        return respondWithResponses(
+            conversation,
+            model,
+            cancellation,
+            chainingSupported
+        );
+    }
+
+    private Reply respondWithResponses(
+        Conversation conversation,
+        String model,
+        Cancellation cancellation,
+        boolean chain
+    ) {
+        long turnStart = System.nanoTime();
+        Map<String, String> metadata = conversation.getMetadata();
+        String storedOn = metadata.get(META_STORED_ON);
+        String previousId = chain ? metadata.get(META_PREVIOUS_RESPONSE) : null;
+        List<ResponseInputItem> input = (previousId == null)
+            ? null
+            : ResponsesInput.since(
+                conversation.getMessages(),
+                metadata.get(META_THROUGH_MESSAGE)
+            );
+        if (input == null || input.isEmpty()) {
+            previousId = null;
+            input = ResponsesInput.replay(conversation.getMessages());
+        }
+
+        for (int step = 0; step < MAX_ITERATIONS; step++) {
+            long buildStart = (step == 0) ? turnStart : System.nanoTime();
+            ResponseCreateParams params = responseParams(model, input, previousId);
+            long sendStart = System.nanoTime();
+            ResponsesService.Created created;
+            try {
+                created = responses.create(
+                    params,
+                    cancellation,
+                    previousId == null ? null : storedOn
+                );
+            } catch (OpenAIServiceException e) {
+                if (previousId != null && ResponsesService.isChainRejected(e)) {
+                    LOG.info(
+                        "Provider refused previous_response_id (HTTP " +
+                        e.statusCode() + "); replaying the full conversation"
+                    );
+                    if (chainRejections.incrementAndGet() >= MAX_CHAIN_REJECTIONS) {
+                        chainingSupported = false;
+                    }
+                    return respondWithResponses(conversation, model, cancellation, false);
+                }
+                if (previousId == null && ResponsesService.isUnsupported(e)) {
+                    throw new ResponsesUnsupportedException(e);
+                }
+                throw e;
+            }
+            long end = System.nanoTime();
+            if (previousId != null) chainRejections.set(0);
+            Response response = created.response();
+            storedOn = created.baseUrl();
+            Map<String, Object> usage = UsageStats.forResponse(
+                sendStart - buildStart,
+                end - sendStart,
+                response.usage().orElse(null)
+            );
+            // The provider now holds everything up to the newest message
+            metadata.put(META_PREVIOUS_RESPONSE, response.id());
+            metadata.put(META_STORED_ON, storedOn);
+            metadata.put(
+                META_THROUGH_MESSAGE,
+                conversation.getMessages().getLast().id()
+            );
+
+            String text = ResponsesInput.outputText(response);
+            List<ResponseFunctionToolCall> calls = ResponsesInput.functionCalls(response);
+            if (calls.isEmpty()) {
+                usage.put(
+                    UsageStats.TURN_MS,
+                    UsageStats.millis(System.nanoTime() - turnStart)
+                );
+                return new Reply(text, usage);
+            }
+
+            List<PendingCall> pending = calls
+                .stream()
+                .map(c ->
+                    new PendingCall(c.callId(), c.name(), parseArgs(c.arguments()))
+                )
+                .toList();
+            long toolStart = System.nanoTime();
+            List<Object> results = executeAll(pending, cancellation);
+            usage.put(
+                UsageStats.TOOL_MS,
+                UsageStats.millis(System.nanoTime() - toolStart)
+            );
+
+            saveAssistantMessage(
+                conversation,
+                text,
+                calls.stream().map(c -> toDomainToolCall(c)).toList(),
+                model,
+                usage
+            );
+            List<ResponseInputItem> outputs = new ArrayList<>(pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                ToolResultEncoder.Encoded encoded = encode(pending.get(i), results.get(i));
+                String callId = pending.get(i).id();
+                saveToolMessage(conversation, callId, encoded, model);
+                outputs.add(ResponsesInput.functionOutput(callId, encoded.text()));
+            }
+            cancellation.throwIfCancelled();
+
+            if (chainingSupported) {
+                previousId = response.id();
+                input = outputs;
+            } else {
+                input = ResponsesInput.replay(conversation.getMessages());
+            }
+        }
+        return new Reply(
+            "ERROR: tool loop did not resolve to a final assistant message.",
+            null
+        );
+    }
+
+    private ResponseCreateParams responseParams(
+        String model,
+        List<ResponseInputItem> input,
+        String previousId
     ) {
+        ResponseCreateParams.Builder builder = ResponseCreateParams.builder()
+            .model(model)
+            .instructions(SYSTEM_PROMPT)
+            .temperature(0.3)
+            .store(true)
+            .inputOfResponse(input);
+        if (previousId != null) builder.previousResponseId(previousId);
+        for (FunctionTool tool : responseTools) {
+            builder.addTool(tool);
+        }
+        return builder.build();
+    }
+
+    /** The provider answered the first Responses request with "no such endpoint". */
+    private static final class ResponsesUnsupportedException extends RuntimeException {
+
+        ResponsesUnsupportedException(Throwable cause) {
+            super(cause);
+        }
+    }
+
+    /** A function call from the model with its arguments already parsed. */
+    record PendingCall(String id, String name, Map<String, Object> arguments) {}
+
+    private static PendingCall toPendingCall(ChatCompletionMessageToolCall toolCall) {
         var fn = toolCall.asFunction();
-        String toolCallId = fn.id();
-        String toolName = fn.function().name();
-        Map<String, Object> args = parseArgs(fn.function().arguments());
+        return new PendingCall(
+            fn.id(),
+            fn.function().name(),
+            parseArgs(fn.function().arguments())
+        );
+    }
 
-        Tool tool = tools
+    /**
+     * Runs the calls of one model turn on virtual threads, at most {@code maxConcurrentTools}
+     * at a time, and returns their results in call order. A call that fails or exceeds the
+     * tool timeout yields an {@code {"error": ...}} map instead of a result.
+     */
+    List<Object> executeAll(List<PendingCall> calls, Cancellation cancellation) {
+        Semaphore permits = new Semaphore(maxConcurrentTools);
+        List<CompletableFuture<Object>> futures = new ArrayList<>(calls.size());
+        for (PendingCall call : calls) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            futures.add(future);
+            Thread.ofVirtual()
+                .name("tool-" + call.name())
+                .start(() -> runTool(call, future, permits));
+        }
+        cancellation.onCancel(() -> futures.forEach(f -> f.cancel(true)));
+
+        List<Object> results = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            results.add(awaitResult(calls.get(i), futures.get(i)));
+        }
+        cancellation.clear();
+        return results;
+    }
+
+    private void runTool(
+        PendingCall call,
+        CompletableFuture<Object> future,
+        Semaphore permits
+    ) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            future.completeExceptionally(e);
+            return;
+        }
+        if (future.isDone()) {
+            // Cancelled while waiting for a permit
+            permits.release();
+            return;
+        }
+        // The timeout starts once the call holds a permit; a timed-out call gives its permit
+        // back right away so a stuck tool cannot hold up the rest of the turn.
+        Thread worker = Thread.currentThread();
+        future
+            .orTimeout(toolTimeout.toMillis(), TimeUnit.MILLISECONDS)
+            .whenComplete((value, error) -> {
+                permits.release();
+                if (
+                    error instanceof TimeoutException ||
+                    error instanceof CancellationException
+                ) worker.interrupt();
+            });
+        try {
+            future.complete(invoke(call));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private Tool tool(String name) {
+        return tools
             .stream()
-            .filter(t -> t.name().equals(toolName))
+            .filter(t -> t.name().equals(name))
             .findFirst()
             .orElse(null);
+    }
+
+    private Object invoke(PendingCall call) throws Exception {
+        Tool tool = tool(call.name());
+        if (tool == null) throw new IllegalArgumentException(
+            "Unknown tool: " + call.name()
+        );
+        return tool.execute(call.arguments());
+    }
 
-        Object result;
+    private Object awaitResult(PendingCall call, CompletableFuture<Object> future) {
         try {
-            if (tool == null) throw new IllegalArgumentException(
-                "Unknown tool: " + toolName
-            );
-            result = tool.execute(args);
-        } catch (Exception e) {
-            LOG.log(Level.WARNING, "Tool execution failed: " + toolName, e);
-            result = Map.of(
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return Map.of("error", "Interrupted");
+        } catch (CancellationException e) {
+            return Map.of("error", "Cancelled by the user");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                LOG.warning(
+                    "Tool timed out after " + toolTimeout.toSeconds() + "s: " + call.name()
+                );
+                return Map.of(
+                    "error",
+                    "Timed out after " + toolTimeout.toSeconds() + "s"
+                );
+            }
+            LOG.log(Level.WARNING, "Tool execution failed: " + call.name(), cause);
+            return Map.of(
                 "error",
-                e.getMessage() == null ? "Error" : e.getMessage()
+                cause.getMessage() == null ? "Error" : cause.getMessage()
             );
         }
+    }
 
-        String resultText;
-        try {
-            resultText =
-                JSON.writerWithDefaultPrettyPrinter().writeValueAsString(
-                    result
-                );
-        } catch (Exception e) {
-            resultText = String.valueOf(result);
-        }
+    private void saveToolResult(
+        Conversation conversation,
+        ChatCompletionCreateParams.Builder builder,
+        PendingCall call,
+        Object result,
+        String model
+    ) {
+        ToolResultEncoder.Encoded encoded = encode(call, result);
+        String id = saveToolMessage(conversation, call.id(), encoded, model);
+        ChatCompletionToolMessageParam param =
+            ChatCompletionToolMessageParam.builder()
+                .toolCallId(call.id())
+                .content(encoded.text())
+                .build();
+        builder.addMessage(param);
+        messageParams.put(id, ChatCompletionMessageParam.ofTool(param));
+    }
 
+    private String saveToolMessage(
+        Conversation conversation,
+        String toolCallId,
+        ToolResultEncoder.Encoded result,
+        String model
+    ) {
+        String id = "tool_" + shortId();
         conversation.addMessage(
             new ChatMessage(
-                "tool_" + shortId(),
+                id,
                 conversation.getId(),
                 conversation.getMessages().size(),
                 Role.TOOL,
                 ChatMessage.Source.TOOL_OUTPUT,
-                resultText,
+                result.text(),
                 OffsetDateTime.now(ZoneOffset.UTC),
                 model,
                 conversation.getProvider().name().toLowerCase(),
                 null,
                 null,
                 toolCallId,
-                null,
+                result.usage(),
                 null
             )
         );
+        return id;
+    }
 
-        builder.addMessage(
-            ChatCompletionToolMessageParam.builder()
-                .toolCallId(toolCallId)
-                .contentAsJson(result)
-                .build()
+    /** Compact text for a tool result, within the tool's token budget. */
+    private ToolResultEncoder.Encoded encode(PendingCall call, Object result) {
+        Tool tool = tool(call.name());
+        return ToolResultEncoder.encode(
+            result,
+            tool == null ? 0 : tool.resultTokenBudget()
+        );
+    }
+
+    private static ToolCall toDomainToolCall(ResponseFunctionToolCall call) {
+        return new ToolCall(
+            "tc_" + shortId(),
+            call.callId(),
+            call.name(),
+            parseArgs(call.arguments()),
+            call.arguments(),
+            ToolCall.Status.PENDING,
+            null,
+            null
         );
     }
 
@@ -198,67 +734,45 @@ public final class ToolExecutor {
             providerId,
             fn.function().name(),
             parseArgs(fn.function().arguments()),
+            fn.function().arguments(),
             ToolCall.Status.PENDING,
             null,
             null
         );
     }
 
-    private ChatCompletionCreateParams.Builder buildParams(
-        Conversation conversation,
-        String modelOverride
-    ) {
-        ChatCompletionCreateParams.Builder b =
-            ChatCompletionCreateParams.builder();
-        b.model(
-            modelOverride != null && !modelOverride.isBlank()
-                ? modelOverride
-                : conversation.getDefaultModel()
-        );
-        b.temperature(0.3);
-
-        b.addSystemMessage(SYSTEM_PROMPT);
-
-        List<ChatMessage> messages = conversation.getMessages();
-        ChatMessage last = messages.isEmpty()
-            ? null
-            : messages.get(messages.size() - 1);
-
-        for (ChatMessage m : messages) {
-            if (shouldSkipMessage(m, last)) continue;
-            appendMessage(b, m);
-        }
-        return b;
-    }
-
-    private boolean shouldSkipMessage(ChatMessage m, ChatMessage last) {
+    /**
+     * Converts a stored message into its request form, or returns {@code null} when it is
+     * not sent to the model. Internal messages are converted like any other; whether they
+     * are sent depends on their position (see {@link MessageParamCache}).
+     */
+    static ChatCompletionMessageParam toParam(ChatMessage m) {
         boolean hasContent = m.content() != null && !m.content().isBlank();
         boolean hasToolCalls =
             m.toolCalls() != null && !m.toolCalls().isEmpty();
         boolean isToolResponse =
             m.role() == Role.TOOL && m.toolCallId() != null;
+        if (!hasContent && !hasToolCalls && !isToolResponse) return null;
 
-        if (!hasContent && !hasToolCalls && !isToolResponse) return true;
-        return m.source() == ChatMessage.Source.INTERNAL && m != last;
-    }
-
-    private void appendMessage(
-        ChatCompletionCreateParams.Builder b,
-        ChatMessage m
-    ) {
         String content = contentOrEmpty(m);
-        switch (m.role()) {
-            case SYSTEM -> {
-                if (!content.isBlank()) b.addSystemMessage(content);
-            }
-            case USER -> {
-                if (shouldIncludeUserMessage(m, content)) b.addUserMessage(
-                    content
+        return switch (m.role()) {
+            case SYSTEM -> content.isBlank()
+                ? null
+                : ChatCompletionMessageParam.ofSystem(
+                    ChatCompletionSystemMessageParam.builder()
+                        .content(content)
+                        .build()
                 );
-            }
-            case ASSISTANT -> appendAssistantMessage(b, m, content);
-            case TOOL -> appendToolMessage(b, m, content);
-        }
+            case USER -> shouldIncludeUserMessage(m, content)
+                ? ChatCompletionMessageParam.ofUser(
+                    ChatCompletionUserMessageParam.builder()
+                        .content(content)
+                        .build()
+                )
+                : null;
+            case ASSISTANT -> assistantParam(m, content);
+            case TOOL -> toolParam(m, content);
+        };
     }
 
     static boolean shouldIncludeUserMessage(ChatMessage m, String content) {
@@ -269,48 +783,50 @@ public final class ToolExecutor {
         );
     }
 
-    private void appendAssistantMessage(
-        ChatCompletionCreateParams.Builder b,
+    private static ChatCompletionMessageParam assistantParam(
         ChatMessage m,
         String content
     ) {
-        if (m.source() != ChatMessage.Source.LLM_OUTPUT) return;
+        if (m.source() != ChatMessage.Source.LLM_OUTPUT) return null;
 
         List<ToolCall> toolCalls = m.toolCalls();
         boolean hasToolCalls = toolCalls != null && !toolCalls.isEmpty();
+        if (!hasToolCalls && content.isBlank()) return null;
 
+        var ab = ChatCompletionAssistantMessageParam.builder();
+        if (!content.isBlank()) ab.content(content);
         if (hasToolCalls) {
-            var ab = ChatCompletionAssistantMessageParam.builder();
-            if (!content.isBlank()) ab.content(content);
             for (ToolCall tc : toolCalls) {
                 ab.addToolCall(buildToolCall(tc));
             }
-            b.addMessage(ab.build());
-        } else if (!content.isBlank()) {
-            b.addAssistantMessage(content);
         }
+        return ChatCompletionMessageParam.ofAssistant(ab.build());
     }
 
-    private ChatCompletionMessageFunctionToolCall buildToolCall(ToolCall tc) {
+    private static ChatCompletionMessageFunctionToolCall buildToolCall(
+        ToolCall tc
+    ) {
+        String arguments = tc.rawArguments() != null
+            ? tc.rawArguments()
+            : toJson(tc.arguments());
         return ChatCompletionMessageFunctionToolCall.builder()
             .id(tc.providerId())
             .function(
                 ChatCompletionMessageFunctionToolCall.Function.builder()
                     .name(tc.name())
-                    .arguments(toJson(tc.arguments()))
+                    .arguments(arguments)
                     .build()
             )
             .build();
     }
 
-    private void appendToolMessage(
-        ChatCompletionCreateParams.Builder b,
+    private static ChatCompletionMessageParam toolParam(
         ChatMessage m,
         String content
     ) {
         String toolCallId = m.toolCallId();
-        if (toolCallId == null || content.isBlank()) return;
-        b.addMessage(
+        if (toolCallId == null || content.isBlank()) return null;
+        return ChatCompletionMessageParam.ofTool(
             ChatCompletionToolMessageParam.builder()
                 .toolCallId(toolCallId)
                 .content(content)
@@ -323,6 +839,17 @@ public final class ToolExecutor {
         return c != null ? c : "";
     }
 
+    private static int envPositiveInt(String name, int defaultValue) {
+        String env = System.getenv(name);
+        if (env == null || env.isBlank()) return defaultValue;
+        try {
+            int parsed = Integer.parseInt(env.trim());
+            return parsed > 0 ? parsed : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     private static String shortId() {
         return UUID.randomUUID().toString().substring(0, 8);
     }
@@ -336,7 +863,7 @@ public final class ToolExecutor {
         }
     }
 
-    private static String toJson(Map<String, Object> args) {
+    static String toJson(Map<String, Object> args) {
         if (args == null || args.isEmpty()) return "{}";
         try {
             return JSON.writeValueAsString(args);
@@ -0,0 +1,215 @@
+package com.williamcallahan.chatclient.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Turns a tool result into the text the model sees, within a token budget.
+ *
+ * <p>A tool message is resent as prompt on every later turn, so its size is paid again and
+ * again. The encoder writes compact JSON without null or blank fields, and turns an array
+ * of objects (forecast days, place lists) into a {@code {"columns": [...], "rows": [...]}}
+ * table so field names appear once. When the result still exceeds the budget, long strings
+ * are shortened and then trailing rows of the longest arrays are dropped, with the number
+ * dropped noted in place.
+ */
+final class ToolResultEncoder {
+
+    /** The text to send and store, and estimated token counts before and after encoding. */
+    record Encoded(
+        String text,
+        int originalTokens,
+        int encodedTokens,
+        boolean trimmed
+    ) {
+        /** Usage entries for the tool message, see {@link UsageStats}. */
+        Map<String, Object> usage() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put(UsageStats.RESULT_ORIGINAL_TOKENS, originalTokens);
+            map.put(UsageStats.RESULT_TOKENS, encodedTokens);
+            if (trimmed) map.put(UsageStats.RESULT_TRIMMED, true);
+            return map;
+        }
+    }
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int MAX_STRING_CHARS = 200;
+    private static final int MIN_TABLE_ROWS = 2;
+
+    /**
+     * An array rows may be dropped from; {@code table} is set when it holds table rows, and
+     * {@code order} breaks ties between equally long arrays in favour of the first found.
+     */
+    private record Trimmable(ArrayNode items, ObjectNode table, int order) {}
+
+    private ToolResultEncoder() {}
+
+    /**
+     * @param tokenBudget upper bound on the estimated tokens of the encoded text; zero or
+     *                    less disables trimming
+     */
+    static Encoded encode(Object result, int tokenBudget) {
+        JsonNode tree;
+        String original;
+        try {
+            tree = JSON.valueToTree(result);
+            // What tool messages used to carry, kept for the before/after figures
+            original = JSON.writerWithDefaultPrettyPrinter().writeValueAsString(tree);
+        } catch (IllegalArgumentException | JsonProcessingException e) {
+            String text = String.valueOf(result);
+            int tokens = TokenCounter.estimateTokens(text);
+            return new Encoded(text, tokens, tokens, false);
+        }
+
+        List<Trimmable> arrays = new ArrayList<>();
+        JsonNode compact = compact(tree, arrays);
+        String text = write(compact);
+        boolean trimmed = false;
+        if (tokenBudget > 0 && TokenCounter.estimateTokens(text) > tokenBudget) {
+            trimmed = true;
+            compact = shortenStrings(compact);
+            // Each dropped row is measured once and taken off the running length (plus its
+            // comma), so the whole tree is only written again at the end
+            int length = write(compact).length();
+            PriorityQueue<Trimmable> longestFirst = new PriorityQueue<>(
+                Comparator.comparingInt((Trimmable t) -> -t.items().size())
+                    .thenComparingInt(Trimmable::order)
+            );
+            for (Trimmable t : arrays) {
+                if (t.items().size() > 1) longestFirst.add(t);
+            }
+            long maxChars = TokenCounter.maxCharsFor(tokenBudget);
+            Map<ArrayNode, Integer> dropped = new IdentityHashMap<>();
+            Set<JsonNode> detached = Collections.newSetFromMap(new IdentityHashMap<>());
+            while (length > maxChars && !longestFirst.isEmpty()) {
+                Trimmable longest = longestFirst.poll();
+                // Arrays inside an already dropped row no longer count toward the length
+                if (detached.contains(longest.items())) continue;
+                JsonNode row = longest.items().remove(longest.items().size() - 1);
+                length -= write(row).length() + 1;
+                addArrays(row, detached);
+                dropped.merge(longest.items(), 1, Integer::sum);
+                if (longest.items().size() > 1) longestFirst.add(longest);
+            }
+            for (Trimmable t : arrays) {
+                Integer n = dropped.get(t.items());
+                if (n == null) continue;
+                if (t.table() != null) t.table().put("omitted_rows", n);
+                else t.items().add("+" + n + " more");
+            }
+            text = write(compact);
+        }
+        return new Encoded(
+            text,
+            TokenCounter.estimateTokens(original),
+            TokenCounter.estimateTokens(text),
+            trimmed
+        );
+    }
+
+    /** Copies {@code node} without null or blank fields, tabulating arrays of objects. */
+    private static JsonNode compact(JsonNode node, List<Trimmable> arrays) {
+        if (node.isObject()) {
+            // A tool that already answers with a table keeps it; cells are positional
+            boolean table = node.path("columns").isArray() && node.path("rows").isArray();
+            ObjectNode out = JSON.createObjectNode();
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext();) {
+                Map.Entry<String, JsonNode> field = it.next();
+                JsonNode value = field.getValue();
+                if (value.isNull() || (value.isTextual() && value.asText().isBlank())) continue;
+                if (table && ("columns".equals(field.getKey()) || "rows".equals(field.getKey()))) {
+                    out.set(field.getKey(), value.deepCopy());
+                } else {
+                    out.set(field.getKey(), compact(value, arrays));
+                }
+            }
+            if (table) {
+                arrays.add(new Trimmable((ArrayNode) out.get("rows"), out, arrays.size()));
+            }
+            return out;
+        }
+        if (node.isArray()) {
+            if (isTable(node)) return table(node, arrays);
+            ArrayNode out = JSON.createArrayNode();
+            for (JsonNode item : node) out.add(compact(item, arrays));
+            arrays.add(new Trimmable(out, null, arrays.size()));
+            return out;
+        }
+        return node;
+    }
+
+    private static boolean isTable(JsonNode array) {
+        if (array.size() < MIN_TABLE_ROWS) return false;
+        for (JsonNode item : array) {
+            if (!item.isObject()) return false;
+        }
+        return true;
+    }
+
+    private static ObjectNode table(JsonNode array, List<Trimmable> arrays) {
+        List<ObjectNode> items = new ArrayList<>(array.size());
+        Set<String> columns = new LinkedHashSet<>();
+        for (JsonNode item : array) {
+            ObjectNode compacted = (ObjectNode) compact(item, arrays);
+            compacted.fieldNames().forEachRemaining(columns::add);
+            items.add(compacted);
+        }
+        ObjectNode table = JSON.createObjectNode();
+        ArrayNode header = table.putArray("columns");
+        columns.forEach(header::add);
+        ArrayNode rows = table.putArray("rows");
+        for (ObjectNode item : items) {
+            ArrayNode row = rows.addArray();
+            for (String column : columns) {
+                JsonNode cell = item.get(column);
+                row.add(cell == null ? JSON.nullNode() : cell);
+            }
+        }
+        arrays.add(new Trimmable(rows, table, arrays.size()));
+        return table;
+    }
+
+    private static JsonNode shortenStrings(JsonNode node) {
+        if (node.isTextual() && node.asText().length() > MAX_STRING_CHARS) {
+            return TextNode.valueOf(node.asText().substring(0, MAX_STRING_CHARS) + "…");
+        }
+        if (node.isObject()) {
+            ObjectNode object = (ObjectNode) node;
+            List<String> names = new ArrayList<>();
+            object.fieldNames().forEachRemaining(names::add);
+            for (String name : names) object.set(name, shortenStrings(object.get(name)));
+        } else if (node.isArray()) {
+            ArrayNode array = (ArrayNode) node;
+            for (int i = 0; i < array.size(); i++) array.set(i, shortenStrings(array.get(i)));
+        }
+        return node;
+    }
+
+    private static void addArrays(JsonNode node, Set<JsonNode> arrays) {
+        if (node.isArray()) arrays.add(node);
+        for (JsonNode child : node) addArrays(child, arrays);
+    }
+
+    private static String write(JsonNode node) {
+        try {
+            return JSON.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            return node.toString();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.models.completions.CompletionUsage;
+import com.openai.models.responses.ResponseUsage;
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import com.williamcallahan.chatclient.domain.Role;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Token usage and client-side timings stored in {@link ChatMessage#usage()}.
+ *
+ * <p>Each assistant message from the model carries the numbers of the one request that
+ * produced it: provider token counts (when the provider reports them) plus request build
+ * time, time to first byte, total time and generation speed. The message whose tool calls
+ * ran also records how long they took, and the final reply of a turn records the turn's
+ * wall time. Summing over a conversation therefore counts every request once.
+ *
+ * <p>Tool messages carry the estimated size of their result as the tool returned it and as
+ * encoded for the model ({@link ToolResultEncoder}).
+ */
+public final class UsageStats {
+
+    public static final String PROMPT_TOKENS = "prompt_tokens";
+    public static final String COMPLETION_TOKENS = "completion_tokens";
+    public static final String CACHED_TOKENS = "cached_tokens";
+    public static final String REASONING_TOKENS = "reasoning_tokens";
+    public static final String BUILD_MS = "build_ms";
+    public static final String FIRST_BYTE_MS = "first_byte_ms";
+    public static final String TOTAL_MS = "total_ms";
+    public static final String TOKENS_PER_SEC = "tokens_per_sec";
+    public static final String TOOL_MS = "tool_ms";
+    public static final String TURN_MS = "turn_ms";
+    public static final String RESULT_ORIGINAL_TOKENS = "result_original_tokens";
+    public static final String RESULT_TOKENS = "result_tokens";
+    public static final String RESULT_TRIMMED = "result_trimmed";
+
+    /** Sums over the assistant messages of a conversation, for {@code /stats}. */
+    public record Totals(
+        int requests,
+        long promptTokens,
+        long completionTokens,
+        long cachedTokens,
+        double avgFirstByteMillis,
+        double avgTokensPerSec,
+        double toolMillis,
+        long toolResultOriginalTokens,
+        long toolResultTokens,
+        Map<String, Object> last
+    ) {}
+
+    private UsageStats() {}
+
+    /**
+     * Usage map for one request.
+     *
+     * @param firstByteNanos time to the first streamed token; pass {@code totalNanos} for a
+     *                       non-streaming request, whose body arrives all at once
+     * @param usage          provider-reported counts, or null when the provider sent none
+     */
+    static Map<String, Object> forRequest(
+        long buildNanos,
+        long firstByteNanos,
+        long totalNanos,
+        CompletionUsage usage
+    ) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (usage != null) {
+            map.put(PROMPT_TOKENS, usage.promptTokens());
+            map.put(COMPLETION_TOKENS, usage.completionTokens());
+            usage
+                .promptTokensDetails()
+                .flatMap(CompletionUsage.PromptTokensDetails::cachedTokens)
+                .ifPresent(cached -> map.put(CACHED_TOKENS, cached));
+            usage
+                .completionTokensDetails()
+                .flatMap(CompletionUsage.CompletionTokensDetails::reasoningTokens)
+                .ifPresent(reasoning -> map.put(REASONING_TOKENS, reasoning));
+        }
+        putTimings(map, buildNanos, firstByteNanos, totalNanos);
+        return map;
+    }
+
+    /** Usage map for one non-streamed Responses API request. */
+    static Map<String, Object> forResponse(
+        long buildNanos,
+        long totalNanos,
+        ResponseUsage usage
+    ) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        if (usage != null) {
+            map.put(PROMPT_TOKENS, usage.inputTokens());
+            map.put(COMPLETION_TOKENS, usage.outputTokens());
+            map.put(CACHED_TOKENS, usage.inputTokensDetails().cachedTokens());
+            map.put(REASONING_TOKENS, usage.outputTokensDetails().reasoningTokens());
+        }
+        putTimings(map, buildNanos, totalNanos, totalNanos);
+        return map;
+    }
+
+    private static void putTimings(
+        Map<String, Object> map,
+        long buildNanos,
+        long firstByteNanos,
+        long totalNanos
+    ) {
+        map.put(BUILD_MS, millis(buildNanos));
+        map.put(FIRST_BYTE_MS, millis(firstByteNanos));
+        map.put(TOTAL_MS, millis(totalNanos));
+        long completion = map.get(COMPLETION_TOKENS) instanceof Long n ? n : 0;
+        if (completion > 0) {
+            // Streaming: tokens over the time spent generating them; otherwise the whole call
+            long generating = totalNanos - firstByteNanos;
+            long denominator = generating > 0 ? generating : totalNanos;
+            if (denominator > 0) {
+                map.put(TOKENS_PER_SEC, round(completion / (denominator / 1e9)));
+            }
+        }
+    }
+
+    /** Adds up every assistant message that carries usage. */
+    public static Totals totals(List<ChatMessage> messages) {
+        int requests = 0;
+        long prompt = 0;
+        long completion = 0;
+        long cached = 0;
+        double firstByteSum = 0;
+        double speedSum = 0;
+        int speedCount = 0;
+        double toolMillis = 0;
+        long resultOriginal = 0;
+        long resultEncoded = 0;
+        Map<String, Object> last = null;
+        for (ChatMessage m : messages) {
+            if (m.role() == Role.TOOL && m.usage() != null) {
+                resultOriginal += (long) number(m.usage(), RESULT_ORIGINAL_TOKENS);
+                resultEncoded += (long) number(m.usage(), RESULT_TOKENS);
+                continue;
+            }
+            if (m.role() != Role.ASSISTANT || m.usage() == null) continue;
+            Map<String, Object> usage = m.usage();
+            requests++;
+            prompt += (long) number(usage, PROMPT_TOKENS);
+            completion += (long) number(usage, COMPLETION_TOKENS);
+            cached += (long) number(usage, CACHED_TOKENS);
+            firstByteSum += number(usage, FIRST_BYTE_MS);
+            if (usage.get(TOKENS_PER_SEC) instanceof Number speed) {
+                speedSum += speed.doubleValue();
+                speedCount++;
+            }
+            toolMillis += number(usage, TOOL_MS);
+            last = usage;
+        }
+        return new Totals(
+            requests,
+            prompt,
+            completion,
+            cached,
+            requests == 0 ? 0 : firstByteSum / requests,
+            speedCount == 0 ? 0 : speedSum / speedCount,
+            toolMillis,
+            resultOriginal,
+            resultEncoded,
+            last
+        );
+    }
+
+    /** Reads a numeric entry, which is an Integer or Double once loaded back from JSON. */
+    public static double number(Map<String, Object> usage, String key) {
+        return usage != null && usage.get(key) instanceof Number n
+            ? n.doubleValue()
+            : 0;
+    }
+
+    static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,303 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Offline city lookup over a memory-mapped index built from a GeoNames cities file
+ * ({@code cities15000.txt} and friends, tab-separated).
+ *
+ * <p>The index is a header, then fixed-size records sorted by normalized name (lowercase,
+ * accents and punctuation stripped) and by population within a name, then a pool of
+ * length-prefixed UTF-8 strings shared between records. A lookup is a binary search over
+ * the mapped records, so it touches a few pages and allocates only its results. The index
+ * is rebuilt when the source file is newer. An {@code admin1CodesASCII.txt} next to the
+ * source, if present, turns region codes into names so region hints can match.
+ */
+final class Gazetteer {
+
+    /** One city: display name, ISO country code, region, position, timezone, population. */
+    record Place(
+        String name,
+        String countryCode,
+        String admin1,
+        double latitude,
+        double longitude,
+        String timezone,
+        int population
+    ) {}
+
+    private static final int MAGIC = 0x475A5431; // "GZT1"
+    private static final int HEADER_BYTES = 16;
+    private static final int RECORD_BYTES = 32;
+    private static final String ADMIN1_FILE = "admin1CodesASCII.txt";
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int poolStart;
+
+    private Gazetteer(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a gazetteer index");
+        }
+        this.count = buffer.getInt(8);
+        this.poolStart = HEADER_BYTES + count * RECORD_BYTES;
+    }
+
+    /**
+     * Maps the index for {@code source} in {@code indexDir}, building it first if it is
+     * missing or older than the source.
+     */
+    static Gazetteer open(Path source, Path indexDir) throws IOException {
+        Path index = indexDir.resolve(
+            "gazetteer-" + Integer.toHexString(source.toAbsolutePath().hashCode()) + ".idx"
+        );
+        if (
+            !Files.isRegularFile(index) ||
+            Files.getLastModifiedTime(index).compareTo(
+                Files.getLastModifiedTime(source)
+            ) < 0
+        ) {
+            build(source, index);
+        }
+        try (FileChannel channel = FileChannel.open(index, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(
+                FileChannel.MapMode.READ_ONLY,
+                0,
+                channel.size()
+            );
+            return new Gazetteer(mapped);
+        }
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * Places whose normalized name equals the normalized query, by descending population.
+     * Only whole names match: a city missing from the file must not resolve to a longer
+     * name that happens to start the same ("Bell" to "Bellevue").
+     */
+    List<Place> find(String query, int limit) {
+        byte[] q = normalize(query).getBytes(StandardCharsets.UTF_8);
+        if (q.length == 0) return List.of();
+        List<Place> out = new ArrayList<>();
+        for (int i = lowerBound(q); i < count && out.size() < limit; i++) {
+            if (compareKey(i, q) != 0) break;
+            out.add(place(i));
+        }
+        return out;
+    }
+
+    /** Lowercase, without accents, with runs of anything but letters and digits as one space. */
+    static String normalize(String name) {
+        if (name == null) return "";
+        String folded = Normalizer
+            .normalize(name, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT);
+        return folded.replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    private int lowerBound(byte[] q) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareKey(mid, q) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int compareKey(int record, byte[] q) {
+        int offset = stringOffset(record, 0);
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        int n = Math.min(length, q.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Byte.compareUnsigned(buffer.get(offset + 2 + i), q[i]);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(length, q.length);
+    }
+
+    private Place place(int record) {
+        int base = HEADER_BYTES + record * RECORD_BYTES;
+        return new Place(
+            string(stringOffset(record, 4)),
+            new String(
+                new byte[] { buffer.get(base + 28), buffer.get(base + 29) },
+                StandardCharsets.US_ASCII
+            ).trim(),
+            string(stringOffset(record, 8)),
+            buffer.getFloat(base + 16),
+            buffer.getFloat(base + 20),
+            string(stringOffset(record, 12)),
+            buffer.getInt(base + 24)
+        );
+    }
+
+    /** Absolute position of a pooled string referenced at {@code field} of a record. */
+    private int stringOffset(int record, int field) {
+        return poolStart + buffer.getInt(HEADER_BYTES + record * RECORD_BYTES + field);
+    }
+
+    private String string(int offset) {
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ── Index build ─────────────────────────────────────────────────────────────
+
+    private record Row(
+        byte[] key,
+        String name,
+        String admin1,
+        String timezone,
+        float latitude,
+        float longitude,
+        int population,
+        String countryCode
+    ) {}
+
+    /** Writes the index for a GeoNames cities file (columns per the GeoNames readme). */
+    static void build(Path source, Path index) throws IOException {
+        Map<String, String> admin1Names = admin1Names(
+            source.resolveSibling(ADMIN1_FILE)
+        );
+        List<Row> rows = new ArrayList<>();
+        try (Stream<String> lines = Files.lines(source, StandardCharsets.UTF_8)) {
+            lines.forEach(line -> addRows(line, admin1Names, rows));
+        }
+        rows.sort((a, b) -> {
+            int cmp = Arrays.compareUnsigned(a.key(), b.key());
+            return cmp != 0 ? cmp : Integer.compare(b.population(), a.population());
+        });
+
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        Map<String, Integer> pooled = new HashMap<>();
+        ByteBuffer records = ByteBuffer.allocate(HEADER_BYTES + rows.size() * RECORD_BYTES);
+        records.putInt(MAGIC).putInt(1).putInt(rows.size()).putInt(0);
+        for (Row row : rows) {
+            byte[] cc = (row.countryCode() + "  ").getBytes(StandardCharsets.US_ASCII);
+            records
+                .putInt(intern(new String(row.key(), StandardCharsets.UTF_8), pooled, pool))
+                .putInt(intern(row.name(), pooled, pool))
+                .putInt(intern(row.admin1(), pooled, pool))
+                .putInt(intern(row.timezone(), pooled, pool))
+                .putFloat(row.latitude())
+                .putFloat(row.longitude())
+                .putInt(row.population())
+                .put(cc[0])
+                .put(cc[1])
+                .putShort((short) 0);
+        }
+
+        Files.createDirectories(index.getParent());
+        Path tmp = index.resolveSibling(index.getFileName() + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            out.write(records.array());
+            pool.writeTo(out);
+        }
+        Files.move(
+            tmp,
+            index,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE
+        );
+    }
+
+    private static void addRows(
+        String line,
+        Map<String, String> admin1Names,
+        List<Row> rows
+    ) {
+        String[] f = line.split("\t", -1);
+        if (f.length < 18) return;
+        float lat;
+        float lon;
+        long population;
+        try {
+            lat = Float.parseFloat(f[4]);
+            lon = Float.parseFloat(f[5]);
+            population = f[14].isEmpty() ? 0 : Long.parseLong(f[14]);
+        } catch (NumberFormatException e) {
+            return;
+        }
+        String countryCode = f[8];
+        String admin1 = admin1Names.getOrDefault(countryCode + "." + f[10], f[10]);
+        // Index the ASCII spelling too when it normalizes differently (e.g. "Łódź" / "Lodz")
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalize(f[1]));
+        keys.add(normalize(f[2]));
+        for (String key : keys) {
+            if (key.isEmpty()) continue;
+            rows.add(
+                new Row(
+                    key.getBytes(StandardCharsets.UTF_8),
+                    f[1],
+                    admin1,
+                    f[17].isEmpty() ? "UTC" : f[17],
+                    lat,
+                    lon,
+                    (int) Math.min(Integer.MAX_VALUE, population),
+                    countryCode
+                )
+            );
+        }
+    }
+
+    private static Map<String, String> admin1Names(Path file) throws IOException {
+        Map<String, String> names = new HashMap<>();
+        if (!Files.isRegularFile(file)) return names;
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.forEach(line -> {
+                String[] f = line.split("\t", -1);
+                if (f.length >= 2) names.put(f[0], f[1]);
+            });
+        }
+        return names;
+    }
+
+    private static int intern(
+        String value,
+        Map<String, Integer> pooled,
+        ByteArrayOutputStream pool
+    ) {
+        String s = value == null ? "" : value;
+        Integer existing = pooled.get(s);
+        if (existing != null) return existing;
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 0xFFFF);
+        int offset = pool.size();
+        pool.write(length >>> 8);
+        pool.write(length);
+        pool.write(bytes, 0, length);
+        pooled.put(s, offset);
+        return offset;
+    }
+}
@@ -0,0 +1,208 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming readers for the Open-Meteo forecast and geocoding responses.
+ *
+ * <p>Each reader walks the token stream once, keeps only the fields the weather tools use
+ * and skips everything else (hourly units, postcodes, elevation and so on) without
+ * materializing it, so a 16-day forecast or a 20-candidate search never becomes a tree.
+ */
+final class OpenMeteoJson {
+
+    /** Reads one value from a parser positioned before its first token. */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(JsonParser parser) throws IOException;
+    }
+
+    /** Current conditions (°F, km/h, WMO code) and the daily outlook of one place. */
+    record Forecast(
+        Double temperature,
+        Double windspeed,
+        Integer weathercode,
+        List<Day> days
+    ) {}
+
+    record Day(String date, Double high, Double low, Integer weathercode) {}
+
+    /** One geocoding search result. */
+    record Candidate(
+        String name,
+        double latitude,
+        double longitude,
+        String timezone,
+        String country,
+        String countryCode,
+        String admin1,
+        String admin2,
+        int population
+    ) {}
+
+    private OpenMeteoJson() {}
+
+    /**
+     * Forecasts in request order: Open-Meteo answers one coordinate pair with an object and
+     * several with an array of them.
+     */
+    static List<Forecast> forecasts(JsonParser p) throws IOException {
+        JsonToken token = p.nextToken();
+        List<Forecast> out = new ArrayList<>();
+        if (token == JsonToken.START_OBJECT) {
+            out.add(forecast(p));
+        } else if (token == JsonToken.START_ARRAY) {
+            while (p.nextToken() == JsonToken.START_OBJECT) out.add(forecast(p));
+        } else {
+            throw new IOException("Unexpected forecast payload: " + token);
+        }
+        return out;
+    }
+
+    /** The {@code results} of a geocoding search; empty when nothing matched. */
+    static List<Candidate> candidates(JsonParser p) throws IOException {
+        List<Candidate> out = new ArrayList<>();
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Unexpected geocoding payload");
+        }
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                while (p.nextToken() == JsonToken.START_OBJECT) out.add(candidate(p));
+            } else {
+                p.skipChildren();
+            }
+        }
+        return out;
+    }
+
+    private static Forecast forecast(JsonParser p) throws IOException {
+        Double temperature = null;
+        Double windspeed = null;
+        Integer weathercode = null;
+        List<String> dates = List.of();
+        List<Double> highs = List.of();
+        List<Double> lows = List.of();
+        List<Double> codes = List.of();
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            if ("current_weather".equals(field) && p.isExpectedStartObjectToken()) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = p.currentName();
+                    p.nextToken();
+                    switch (name) {
+                        case "temperature" -> temperature = doubleOrNull(p);
+                        case "windspeed" -> windspeed = doubleOrNull(p);
+                        case "weathercode" -> weathercode = intOrNull(p);
+                        default -> p.skipChildren();
+                    }
+                }
+            } else if ("daily".equals(field) && p.isExpectedStartObjectToken()) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = p.currentName();
+                    p.nextToken();
+                    switch (name) {
+                        case "time" -> dates = strings(p);
+                        case "temperature_2m_max" -> highs = doubles(p);
+                        case "temperature_2m_min" -> lows = doubles(p);
+                        case "weathercode" -> codes = doubles(p);
+                        default -> p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+
+        List<Day> days = new ArrayList<>(dates.size());
+        for (int i = 0; i < dates.size(); i++) {
+            Double code = at(codes, i);
+            days.add(
+                new Day(
+                    dates.get(i),
+                    at(highs, i),
+                    at(lows, i),
+                    code == null ? null : code.intValue()
+                )
+            );
+        }
+        return new Forecast(temperature, windspeed, weathercode, days);
+    }
+
+    private static Candidate candidate(JsonParser p) throws IOException {
+        String name = null;
+        double latitude = 0;
+        double longitude = 0;
+        String timezone = "UTC";
+        String country = "";
+        String countryCode = "";
+        String admin1 = "";
+        String admin2 = "";
+        int population = 0;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "name" -> name = p.getValueAsString();
+                case "latitude" -> latitude = p.getValueAsDouble();
+                case "longitude" -> longitude = p.getValueAsDouble();
+                case "timezone" -> timezone = p.getValueAsString(timezone);
+                case "country" -> country = p.getValueAsString(country);
+                case "country_code" -> countryCode = p.getValueAsString(countryCode);
+                case "admin1" -> admin1 = p.getValueAsString(admin1);
+                case "admin2" -> admin2 = p.getValueAsString(admin2);
+                case "population" -> population = p.getValueAsInt();
+                default -> p.skipChildren();
+            }
+        }
+        return new Candidate(
+            name,
+            latitude,
+            longitude,
+            timezone,
+            country,
+            countryCode,
+            admin1,
+            admin2,
+            population
+        );
+    }
+
+    private static List<Double> doubles(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return List.of();
+        }
+        List<Double> out = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) out.add(doubleOrNull(p));
+        return out;
+    }
+
+    private static List<String> strings(JsonParser p) throws IOException {
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            p.skipChildren();
+            return List.of();
+        }
+        List<String> out = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) out.add(p.getValueAsString());
+        return out;
+    }
+
+    private static Double doubleOrNull(JsonParser p) throws IOException {
+        return p.currentToken().isNumeric() ? p.getDoubleValue() : null;
+    }
+
+    private static Integer intOrNull(JsonParser p) throws IOException {
+        return p.currentToken().isNumeric() ? p.getIntValue() : null;
+    }
+
+    private static Double at(List<Double> values, int index) {
+        return index < values.size() ? values.get(index) : null;
+    }
+}
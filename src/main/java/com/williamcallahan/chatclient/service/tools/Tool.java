@@ -14,4 +14,12 @@ public interface Tool {
 
     /** Executes the tool and returns a JSON-serializable object (Map/List/primitive/POJO). */
     Object execute(Map<String, Object> arguments) throws Exception;
+
+    /**
+     * Roughly how many prompt tokens the encoded result may take; past it, long strings are
+     * shortened and trailing rows dropped before the model sees the result.
+     */
+    default int resultTokenBudget() {
+        return 1_000;
+    }
 }
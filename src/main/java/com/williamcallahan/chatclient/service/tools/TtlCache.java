@@ -0,0 +1,140 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small string-keyed cache with a fixed TTL and least-recently-used eviction, optionally
+ * mirrored to a JSON file so entries survive a restart.
+ *
+ * <p>The file is read on first use and rewritten (atomically) by {@link #flush()}, which
+ * callers run once per batch of puts (a tool call) rather than after each one; it is meant
+ * for a few hundred small entries, not bulk data. Values must round-trip through Jackson.
+ */
+final class TtlCache<V> {
+
+    private static final Logger LOG = Logger.getLogger(TtlCache.class.getName());
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /** Lookup counters and the current number of entries. */
+    record Stats(long hits, long misses, int size) {}
+
+    private record Entry<V>(V value, long expiresAtMillis) {}
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Path file;
+    private final Class<V> type;
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private boolean loaded;
+    private boolean dirty;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param file where entries are persisted, or null to keep them in memory only
+     */
+    TtlCache(int maxEntries, Duration ttl, Clock clock, Path file, Class<V> type) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.file = file;
+        this.type = type;
+        this.loaded = (file == null);
+    }
+
+    /** Returns the live value for {@code key}, or null (counted as a miss). */
+    synchronized V get(String key) {
+        load();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAtMillis() > clock.millis()) {
+            hits++;
+            return entry.value();
+        }
+        if (entry != null) entries.remove(key);
+        misses++;
+        return null;
+    }
+
+    /** Stores {@code value} in memory; {@link #flush()} writes it to the file. */
+    synchronized void put(String key, V value) {
+        load();
+        entries.put(key, new Entry<>(value, clock.millis() + ttl.toMillis()));
+        Iterator<String> eldest = entries.keySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+        }
+        dirty = true;
+    }
+
+    /** Rewrites the file if anything was put since the last flush. */
+    synchronized void flush() {
+        if (!dirty) return;
+        dirty = false;
+        save();
+    }
+
+    synchronized Stats stats() {
+        return new Stats(hits, misses, entries.size());
+    }
+
+    private void load() {
+        if (loaded) return;
+        loaded = true;
+        if (!Files.isRegularFile(file)) return;
+        try {
+            long now = clock.millis();
+            for (JsonNode node : JSON.readTree(file.toFile())) {
+                long expiresAt = node.path("expires_at").asLong();
+                if (expiresAt <= now) continue;
+                entries.put(
+                    node.path("key").asText(),
+                    new Entry<>(JSON.treeToValue(node.path("value"), type), expiresAt)
+                );
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            LOG.log(Level.FINE, "Ignoring unreadable cache " + file, e);
+            entries.clear();
+        }
+    }
+
+    private void save() {
+        if (file == null) return;
+        ArrayNode array = JSON.createArrayNode();
+        for (Map.Entry<String, Entry<V>> e : entries.entrySet()) {
+            ObjectNode node = array.addObject();
+            node.put("key", e.getKey());
+            node.put("expires_at", e.getValue().expiresAtMillis());
+            node.set("value", JSON.valueToTree(e.getValue().value()));
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            JSON.writeValue(tmp.toFile(), array);
+            Files.move(
+                tmp,
+                file,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (IOException e) {
+            LOG.log(Level.FINE, "Could not write cache " + file, e);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import com.openai.core.JsonValue;
+import com.openai.models.FunctionDefinition;
+import com.openai.models.FunctionParameters;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Compares current weather and daily forecasts for several places in one call.
+ *
+ * <p>Places are geocoded concurrently through the {@link WeatherForecastTool} (sharing its
+ * caches and gazetteer), then every forecast not already cached is fetched in a single
+ * Open-Meteo request with comma-separated coordinates. The answer is one table, so a
+ * "compare SF, NYC and Austin" question costs one tool round trip instead of three.
+ */
+public final class WeatherComparisonTool implements Tool {
+
+    public static final String NAME = "compare_weather";
+
+    private static final int MAX_PLACES = 10;
+
+    private final WeatherForecastTool weather;
+
+    public WeatherComparisonTool(WeatherForecastTool weather) {
+        this.weather = weather;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public FunctionDefinition definition() {
+        Map<String, Object> place = Map.of(
+            "type",
+            "object",
+            "properties",
+            Map.of(
+                "city",
+                Map.of(
+                    "type",
+                    "string",
+                    "description",
+                    "Place name only, without comma qualifiers (e.g. \"Austin\")"
+                ),
+                "country_code",
+                Map.of(
+                    "type",
+                    "string",
+                    "description",
+                    "Optional 2-letter country code hint (e.g. \"US\")"
+                ),
+                "admin1",
+                Map.of(
+                    "type",
+                    "string",
+                    "description",
+                    "Optional state/province/region hint (e.g. \"Texas\")"
+                )
+            ),
+            "required",
+            List.of("city"),
+            "additionalProperties",
+            false
+        );
+        Map<String, Object> props = Map.of(
+            "places",
+            Map.of(
+                "type",
+                "array",
+                "description",
+                "Places to compare (at most " + MAX_PLACES + ")",
+                "items",
+                place,
+                "minItems",
+                1,
+                "maxItems",
+                MAX_PLACES
+            ),
+            "days",
+            Map.of(
+                "type",
+                "integer",
+                "description",
+                "Forecast days ahead (1-16)",
+                "minimum",
+                1,
+                "maximum",
+                16
+            )
+        );
+
+        return FunctionDefinition.builder()
+            .name(NAME)
+            .description(
+                "Compare current weather and the daily forecast across several places in one call. " +
+                "Use instead of repeated get_weather_forecast calls when more than one place is asked about."
+            )
+            .parameters(
+                FunctionParameters.builder()
+                    .putAdditionalProperty("type", JsonValue.from("object"))
+                    .putAdditionalProperty("properties", JsonValue.from(props))
+                    .putAdditionalProperty(
+                        "required",
+                        JsonValue.from(List.of("places"))
+                    )
+                    .putAdditionalProperty(
+                        "additionalProperties",
+                        JsonValue.from(false)
+                    )
+                    .build()
+            )
+            .build();
+    }
+
+    // Up to ten places by sixteen days is a wide table; all of it is the answer
+    @Override
+    public int resultTokenBudget() {
+        return 3_000;
+    }
+
+    @Override
+    public Object execute(Map<String, Object> arguments) throws Exception {
+        List<Map<String, Object>> places = places(arguments.get("places"));
+        int days = WeatherForecastTool.days(arguments, 3);
+
+        List<WeatherForecastTool.Geo> geos = new ArrayList<>();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<WeatherForecastTool.Geo>> lookups = new ArrayList<>();
+            for (Map<String, Object> place : places) {
+                lookups.add(
+                    executor.submit(() ->
+                        weather.geocode(
+                            WeatherForecastTool.cityName(place.get("city")),
+                            WeatherForecastTool.GeoHint.from(place)
+                        )
+                    )
+                );
+            }
+            for (int i = 0; i < lookups.size(); i++) {
+                try {
+                    geos.add(lookups.get(i).get());
+                } catch (ExecutionException e) {
+                    Map<String, Object> error = new LinkedHashMap<>();
+                    error.put("city", places.get(i).get("city"));
+                    error.put(
+                        "error",
+                        e.getCause() == null ? "Error" : e.getCause().getMessage()
+                    );
+                    errors.add(error);
+                }
+            }
+        }
+        if (geos.isEmpty()) {
+            throw new IllegalArgumentException("No place could be geocoded: " + errors);
+        }
+
+        List<OpenMeteoJson.Forecast> forecasts;
+        try {
+            forecasts = weather.forecasts(geos, days);
+        } finally {
+            // Every geocode and forecast of this call goes to disk in one write per cache
+            weather.saveCaches();
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.putAll(table(geos, forecasts));
+        if (!errors.isEmpty()) out.put("errors", errors);
+        return out;
+    }
+
+    /**
+     * One row per place: location, current temperature, condition and wind, then
+     * {@code "high/low condition"} per day. Days are local to each place, so when places
+     * straddle the date line their dates differ; the day columns are then numbered and each
+     * cell starts with its own date.
+     */
+    static Map<String, Object> table(
+        List<WeatherForecastTool.Geo> geos,
+        List<OpenMeteoJson.Forecast> forecasts
+    ) {
+        List<String> dates = dates(forecasts.getFirst());
+        boolean sharedDates = forecasts
+            .stream()
+            .allMatch(f -> dates(f).equals(dates));
+        int dayCount = forecasts
+            .stream()
+            .mapToInt(f -> f.days().size())
+            .max()
+            .orElse(0);
+
+        List<String> columns = new ArrayList<>(
+            List.of("location", "now_F", "now", "wind_mph")
+        );
+        for (int d = 0; d < dayCount; d++) {
+            columns.add(sharedDates ? dates.get(d) : "day_" + (d + 1));
+        }
+
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < geos.size(); i++) {
+            WeatherForecastTool.Geo geo = geos.get(i);
+            OpenMeteoJson.Forecast forecast = forecasts.get(i);
+            List<Object> row = new ArrayList<>();
+            row.add(geo.name() + ", " + geo.country());
+            row.add(forecast.temperature());
+            row.add(WeatherForecastTool.describeWeatherCode(forecast.weathercode()));
+            row.add(WeatherForecastTool.windMph(forecast.windspeed()));
+            for (int d = 0; d < dayCount; d++) {
+                String cell = d < forecast.days().size()
+                    ? dayCell(forecast.days().get(d))
+                    : null;
+                if (cell != null && !sharedDates) {
+                    cell = forecast.days().get(d).date() + " " + cell;
+                }
+                row.add(cell);
+            }
+            rows.add(row);
+        }
+
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("columns", columns);
+        out.put("rows", rows);
+        return out;
+    }
+
+    private static List<String> dates(OpenMeteoJson.Forecast forecast) {
+        return forecast.days().stream().map(OpenMeteoJson.Day::date).toList();
+    }
+
+    private static String dayCell(OpenMeteoJson.Day day) {
+        if (day.high() == null && day.low() == null) return null;
+        return (
+            format(day.high()) + "/" + format(day.low()) + " " +
+            WeatherForecastTool.describeWeatherCode(day.weathercode())
+        );
+    }
+
+    private static String format(Double temperature) {
+        return temperature == null ? "?" : String.valueOf(Math.round(temperature));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> places(Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            throw new IllegalArgumentException("places is required");
+        }
+        if (list.size() > MAX_PLACES) {
+            throw new IllegalArgumentException(
+                "At most " + MAX_PLACES + " places per comparison"
+            );
+        }
+        List<Map<String, Object>> places = new ArrayList<>(list.size());
+        for (Object item : list) {
+            // Accept bare names too; some models flatten the objects
+            if (item instanceof String city) places.add(Map.of("city", city));
+            else if (item instanceof Map<?, ?> map) places.add((Map<String, Object>) map);
+            else throw new IllegalArgumentException("Invalid place: " + item);
+        }
+        return places;
+    }
+}
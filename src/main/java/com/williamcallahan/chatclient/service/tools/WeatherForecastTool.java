@@ -1,35 +1,64 @@
 package com.williamcallahan.chatclient.service.tools;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.openai.core.JsonValue;
 import com.openai.models.FunctionDefinition;
 import com.openai.models.FunctionParameters;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 /**
  * Provides real-time weather data and forecasts via Open-Meteo.
  * Geocodes the city name, then fetches the forecast.
+ *
+ * <p>Both steps are cached: the chosen place per (city, hint) for a month, and the forecast
+ * per rounded coordinates, days and timezone for fifteen minutes. With a cache directory the
+ * entries are also kept on disk, so a restart still answers repeat questions locally.
+ *
+ * <p>Responses are requested gzip-compressed and read as a token stream into small typed
+ * records ({@link OpenMeteoJson}), so only the fields the answer uses are ever allocated.
  */
 public final class WeatherForecastTool implements Tool {
 
     public static final String NAME = "get_weather_forecast";
 
-    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final JsonFactory JSON = new JsonFactory();
     private static final HttpClient HTTP = HttpClient.newBuilder()
         .connectTimeout(Duration.ofSeconds(10))
         .build();
     private static final int GEOCODE_CANDIDATES = 20;
+
+    private static final Duration GEOCODE_TTL = Duration.ofDays(30);
+    private static final Duration FORECAST_TTL = Duration.ofMinutes(15);
+    private static final int GEOCODE_CACHE_SIZE = 512;
+    private static final int FORECAST_CACHE_SIZE = 128;
+
+    private static final String ENV_GAZETTEER = "BRIEF_GAZETTEER";
+    private static final Logger LOG = Logger.getLogger(
+        WeatherForecastTool.class.getName()
+    );
+    private static final Map<Path, WeatherForecastTool> SHARED = new ConcurrentHashMap<>();
     /**
      * WMO Weather Interpretation Codes (WW).
      * @see <a href="https://open-meteo.com/en/docs">Open-Meteo API docs</a>
@@ -65,6 +94,74 @@ public final class WeatherForecastTool implements Tool {
         Map.entry(99, "Thunderstorm with hail (heavy)")
     );
 
+    /** Cache hit and miss counts since the tool was created. */
+    public record CacheStats(
+        long geocodeHits,
+        long geocodeMisses,
+        long forecastHits,
+        long forecastMisses
+    ) {}
+
+    private final TtlCache<Geo> geocodeCache;
+    private final TtlCache<OpenMeteoJson.Forecast> forecastCache;
+    private final Path gazetteerSource;
+    private final Path gazetteerIndexDir;
+    private Gazetteer gazetteer;
+    private boolean gazetteerFailed;
+
+    /** Caches in memory only. */
+    public WeatherForecastTool() {
+        this(null, Clock.systemUTC(), null);
+    }
+
+    /**
+     * Caches in memory and in JSON files under {@code cacheDir}. When BRIEF_GAZETTEER
+     * names a GeoNames cities file, cities are looked up there first and its index is
+     * kept in {@code cacheDir}.
+     */
+    public WeatherForecastTool(Path cacheDir) {
+        this(cacheDir, Clock.systemUTC(), envPath(ENV_GAZETTEER));
+    }
+
+    /**
+     * Returns the process-wide tool caching under {@code cacheDir}, creating it on first use,
+     * so every screen shares one set of caches (and one writer for their files) and the
+     * hit counts cover the whole session.
+     */
+    public static WeatherForecastTool shared(Path cacheDir) {
+        return SHARED.computeIfAbsent(
+            cacheDir.toAbsolutePath().normalize(),
+            WeatherForecastTool::new
+        );
+    }
+
+    WeatherForecastTool(Path cacheDir, Clock clock, Path gazetteerSource) {
+        this.gazetteerSource = gazetteerSource;
+        this.gazetteerIndexDir = (cacheDir != null || gazetteerSource == null)
+            ? cacheDir
+            : gazetteerSource.toAbsolutePath().getParent();
+        this.geocodeCache = new TtlCache<>(
+            GEOCODE_CACHE_SIZE,
+            GEOCODE_TTL,
+            clock,
+            cacheDir == null ? null : cacheDir.resolve("weather-geocode.json"),
+            Geo.class
+        );
+        this.forecastCache = new TtlCache<>(
+            FORECAST_CACHE_SIZE,
+            FORECAST_TTL,
+            clock,
+            cacheDir == null ? null : cacheDir.resolve("weather-forecast.json"),
+            OpenMeteoJson.Forecast.class
+        );
+    }
+
+    public CacheStats cacheStats() {
+        TtlCache.Stats geo = geocodeCache.stats();
+        TtlCache.Stats fc = forecastCache.stats();
+        return new CacheStats(geo.hits(), geo.misses(), fc.hits(), fc.misses());
+    }
+
     @Override
     public String name() {
         return NAME;
@@ -146,34 +243,30 @@ public final class WeatherForecastTool implements Tool {
     @Override
     public Object execute(Map<String, Object> arguments) throws Exception {
         ForecastRequest request = ForecastRequest.from(arguments);
-        Geo geo = geocode(request.cityName(), request.hint());
-        JsonNode forecast = forecast(geo, request.days());
+        Geo geo;
+        OpenMeteoJson.Forecast forecast;
+        try {
+            geo = geocode(request.cityName(), request.hint());
+            forecast = forecast(geo, request.days());
+        } finally {
+            saveCaches();
+        }
 
         Map<String, Object> out = new LinkedHashMap<>();
         Map<String, Object> current = new LinkedHashMap<>();
-        JsonNode cw = forecast.path("current_weather");
-        current.put("location", geo.name + ", " + geo.country);
-        current.put("temp_F", jsonDoubleOrNull(cw, "temperature"));
-        current.put("wind_mph", jsonWindMph(cw, "windspeed"));
-        current.put(
-            "condition",
-            describeWeatherCode(jsonIntOrNull(cw, "weathercode"))
-        );
+        current.put("location", geo.name() + ", " + geo.country());
+        current.put("temp_F", forecast.temperature());
+        current.put("wind_mph", windMph(forecast.windspeed()));
+        current.put("condition", describeWeatherCode(forecast.weathercode()));
         out.put("current", current);
 
-        JsonNode daily = forecast.path("daily");
-        JsonNode times = daily.path("time");
-        JsonNode highs = daily.path("temperature_2m_max");
-        JsonNode lows = daily.path("temperature_2m_min");
-        JsonNode codes = daily.path("weathercode");
-
         List<Map<String, Object>> fc = new ArrayList<>();
-        for (int i = 0; i < times.size(); i++) {
+        for (OpenMeteoJson.Day day : forecast.days()) {
             Map<String, Object> d = new LinkedHashMap<>();
-            d.put("date", times.path(i).asText());
-            d.put("high_F", jsonDoubleOrNull(highs, i));
-            d.put("low_F", jsonDoubleOrNull(lows, i));
-            d.put("condition", describeWeatherCode(jsonIntOrNull(codes, i)));
+            d.put("date", day.date());
+            d.put("high_F", day.high());
+            d.put("low_F", day.low());
+            d.put("condition", describeWeatherCode(day.weathercode()));
             fc.add(d);
         }
         out.put("forecast", fc);
@@ -181,54 +274,67 @@ public final class WeatherForecastTool implements Tool {
         return out;
     }
 
-    private static final class Geo {
-
-        final double lat;
-        final double lon;
-        final String tz;
-        final String country;
-        final String name;
+    record Geo(double lat, double lon, String tz, String country, String name) {}
 
-        Geo(double lat, double lon, String tz, String country, String name) {
-            this.lat = lat;
-            this.lon = lon;
-            this.tz = tz;
-            this.country = country;
-            this.name = name;
+    private record ForecastRequest(String cityName, int days, GeoHint hint) {
+        static ForecastRequest from(Map<String, Object> args) {
+            return new ForecastRequest(
+                cityName(args.get("city")),
+                days(args, 5),
+                GeoHint.from(args)
+            );
         }
     }
 
-    private record ForecastRequest(String cityName, int days, GeoHint hint) {
-        static ForecastRequest from(Map<String, Object> args) {
-            String city = (String) args.get("city");
-            if (city == null || city.isBlank()) {
-                throw new IllegalArgumentException("city is required");
-            }
-            String cityName = city.trim();
-            int comma = cityName.indexOf(',');
-            if (comma >= 0) cityName = cityName.substring(0, comma).trim();
+    /** The place name without comma qualifiers ("Austin, TX" becomes "Austin"). */
+    static String cityName(Object city) {
+        if (!(city instanceof String s) || s.isBlank()) {
+            throw new IllegalArgumentException("city is required");
+        }
+        String cityName = s.trim();
+        int comma = cityName.indexOf(',');
+        if (comma >= 0) cityName = cityName.substring(0, comma).trim();
+        return cityName;
+    }
 
-            int days = args.containsKey("days")
-                ? ((Number) args.get("days")).intValue()
-                : 5;
-            days = Math.max(1, Math.min(days, 16));
+    /** The {@code days} argument clamped to what Open-Meteo serves (1-16). */
+    static int days(Map<String, Object> args, int defaultDays) {
+        int days = args.containsKey("days")
+            ? ((Number) args.get("days")).intValue()
+            : defaultDays;
+        return Math.max(1, Math.min(days, 16));
+    }
 
-            GeoHint hint = new GeoHint(
+    record GeoHint(
+        String countryCode,
+        String country,
+        String admin1,
+        String admin2
+    ) {
+        /** Reads the optional hint arguments shared by the weather tools. */
+        static GeoHint from(Map<String, Object> args) {
+            return new GeoHint(
                 (String) args.get("country_code"),
                 (String) args.get("country"),
                 (String) args.get("admin1"),
                 (String) args.get("admin2")
             );
-            return new ForecastRequest(cityName, days, hint);
         }
-    }
 
-    private record GeoHint(
-        String countryCode,
-        String country,
-        String admin1,
-        String admin2
-    ) {
+        /** Normalized form for cache keys; blank and missing hints are the same. */
+        String key() {
+            return (
+                norm(countryCode) + "|" +
+                norm(country) + "|" +
+                norm(admin1) + "|" +
+                norm(admin2)
+            );
+        }
+
+        private static String norm(String value) {
+            return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        }
+
         boolean any() {
             return (
                 (countryCode != null && !countryCode.isBlank()) ||
@@ -239,30 +345,105 @@ public final class WeatherForecastTool implements Tool {
         }
     }
 
-    private static Geo geocode(String cityName, GeoHint hint) throws Exception {
+    Geo geocode(String cityName, GeoHint hint) throws Exception {
         if (
             cityName == null || cityName.isBlank()
         ) throw new IllegalArgumentException("city is required");
 
-        JsonNode results = geocodeResults(cityName, GEOCODE_CANDIDATES);
-        if (!results.isArray() || results.size() == 0) {
+        String key = cityName.trim().toLowerCase(Locale.ROOT) + "|" + hint.key();
+        Geo cached = geocodeCache.get(key);
+        if (cached != null) return cached;
+        Geo geo = geocodeLocal(cityName, hint);
+        if (geo == null) geo = geocodeRemote(cityName, hint);
+        geocodeCache.put(key, geo);
+        return geo;
+    }
+
+    /**
+     * Looks the city up in the local gazetteer, if one is configured. Returns null unless
+     * the exact name is there, or when a hint was given and no local candidate matches any
+     * of it, so the remote API gets a chance.
+     */
+    private Geo geocodeLocal(String cityName, GeoHint hint) {
+        Gazetteer local = gazetteer();
+        if (local == null) return null;
+        List<Gazetteer.Place> places = local.find(cityName, GEOCODE_CANDIDATES);
+        if (places.isEmpty()) return null;
+
+        // Candidates arrive by population, like the remote ranking
+        Gazetteer.Place best = places.getFirst();
+        if (hint.any()) {
+            int bestScore = 0;
+            for (Gazetteer.Place p : places) {
+                int score = scoreCandidate(
+                    p.countryCode(),
+                    countryName(p.countryCode()),
+                    p.admin1(),
+                    "",
+                    hint
+                );
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = p;
+                }
+            }
+            if (bestScore == 0) return null;
+        }
+        return new Geo(
+            best.latitude(),
+            best.longitude(),
+            best.timezone(),
+            countryName(best.countryCode()),
+            best.name()
+        );
+    }
+
+    /** The English country name for an ISO code, as the remote geocoder reports it. */
+    static String countryName(String countryCode) {
+        if (countryCode == null || countryCode.isBlank()) return "";
+        String name = Locale.of("", countryCode).getDisplayCountry(Locale.ROOT);
+        return name.isBlank() ? countryCode : name;
+    }
+
+    /** Maps the gazetteer on first use; a missing or broken file just disables it. */
+    private synchronized Gazetteer gazetteer() {
+        if (gazetteerSource == null || gazetteerFailed) return gazetteer;
+        if (gazetteer == null) {
+            try {
+                gazetteer = Gazetteer.open(gazetteerSource, gazetteerIndexDir);
+            } catch (IOException | RuntimeException e) {
+                LOG.log(Level.WARNING, "Gazetteer unavailable: " + gazetteerSource, e);
+                gazetteerFailed = true;
+            }
+        }
+        return gazetteer;
+    }
+
+    private static Geo geocodeRemote(String cityName, GeoHint hint) throws Exception {
+        List<OpenMeteoJson.Candidate> results = geocodeResults(
+            cityName,
+            GEOCODE_CANDIDATES
+        );
+        if (results.isEmpty()) {
             throw new IllegalArgumentException(
                 "No geocoding result for city: " + cityName
             );
         }
 
-        JsonNode r = chooseBestResult(results, hint);
+        OpenMeteoJson.Candidate r = chooseBestResult(results, hint);
         return new Geo(
-            r.path("latitude").asDouble(),
-            r.path("longitude").asDouble(),
-            r.path("timezone").asText("UTC"),
-            r.path("country").asText(""),
-            r.path("name").asText(cityName)
+            r.latitude(),
+            r.longitude(),
+            r.timezone(),
+            r.country(),
+            r.name() == null ? cityName : r.name()
         );
     }
 
-    private static JsonNode geocodeResults(String name, int count)
-        throws Exception {
+    private static List<OpenMeteoJson.Candidate> geocodeResults(
+        String name,
+        int count
+    ) throws Exception {
         String q = URLEncoder.encode(name, StandardCharsets.UTF_8);
         int c = Math.max(1, Math.min(count, 100));
         URI uri = URI.create(
@@ -271,20 +452,22 @@ public final class WeatherForecastTool implements Tool {
                 "&count=" +
                 c
         );
-        JsonNode root = getJson(uri);
-        return root.path("results");
+        return getJson(uri, OpenMeteoJson::candidates);
     }
 
-    private static JsonNode chooseBestResult(JsonNode results, GeoHint hint) {
-        if (hint == null || !hint.any()) return results.path(0);
+    private static OpenMeteoJson.Candidate chooseBestResult(
+        List<OpenMeteoJson.Candidate> results,
+        GeoHint hint
+    ) {
+        if (hint == null || !hint.any()) return results.getFirst();
 
         int bestScore = Integer.MIN_VALUE;
         int bestPopulation = -1;
-        JsonNode best = results.path(0);
+        OpenMeteoJson.Candidate best = results.getFirst();
 
-        for (JsonNode r : results) {
+        for (OpenMeteoJson.Candidate r : results) {
             int score = scoreCandidate(r, hint);
-            int pop = r.path("population").asInt(0);
+            int pop = r.population();
             if (
                 score > bestScore ||
                 (score == bestScore && pop > bestPopulation)
@@ -299,17 +482,31 @@ public final class WeatherForecastTool implements Tool {
 
     private static boolean containsIgnoreCase(String haystack, String needle) {
         if (haystack == null || needle == null) return false;
-        return haystack.toLowerCase().contains(needle.toLowerCase());
+        return haystack.toLowerCase(Locale.ROOT).contains(needle.toLowerCase(Locale.ROOT));
     }
 
-    private static int scoreCandidate(JsonNode r, GeoHint hint) {
+    private static int scoreCandidate(OpenMeteoJson.Candidate r, GeoHint hint) {
+        return scoreCandidate(
+            r.countryCode(),
+            r.country(),
+            r.admin1(),
+            r.admin2(),
+            hint
+        );
+    }
+
+    private static int scoreCandidate(
+        String countryCode,
+        String country,
+        String admin1,
+        String admin2,
+        GeoHint hint
+    ) {
         int score = 0;
-        if (
-            matches(r.path("country_code").asText(""), hint.countryCode)
-        ) score += 10;
-        if (matches(r.path("country").asText(""), hint.country)) score += 6;
-        if (matches(r.path("admin1").asText(""), hint.admin1)) score += 8;
-        if (matches(r.path("admin2").asText(""), hint.admin2)) score += 4;
+        if (matches(countryCode, hint.countryCode)) score += 10;
+        if (matches(country, hint.country)) score += 6;
+        if (matches(admin1, hint.admin1)) score += 8;
+        if (matches(admin2, hint.admin2)) score += 4;
         return score;
     }
 
@@ -321,74 +518,131 @@ public final class WeatherForecastTool implements Tool {
         );
     }
 
-    private static JsonNode forecast(Geo geo, int days) throws Exception {
-        String tz = URLEncoder.encode(geo.tz, StandardCharsets.UTF_8);
+    /** Writes cache entries added since the last call to disk; run once per tool call. */
+    void saveCaches() {
+        geocodeCache.flush();
+        forecastCache.flush();
+    }
+
+    private OpenMeteoJson.Forecast forecast(Geo geo, int days) throws Exception {
+        return forecasts(List.of(geo), days).getFirst();
+    }
+
+    /**
+     * Forecasts for several places, in order. Places not in the cache are fetched together
+     * in one request, which Open-Meteo answers with one result per coordinate pair.
+     */
+    List<OpenMeteoJson.Forecast> forecasts(List<Geo> geos, int days) throws Exception {
+        OpenMeteoJson.Forecast[] out = new OpenMeteoJson.Forecast[geos.size()];
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < geos.size(); i++) {
+            out[i] = forecastCache.get(forecastKey(geos.get(i), days));
+            if (out[i] == null) missing.add(i);
+        }
+        if (!missing.isEmpty()) {
+            List<Geo> fetch = missing.stream().map(geos::get).toList();
+            List<OpenMeteoJson.Forecast> fetched = forecastRemote(fetch, days);
+            if (fetched.size() != fetch.size()) {
+                throw new IllegalStateException(
+                    "Expected " + fetch.size() + " forecasts, got " + fetched.size()
+                );
+            }
+            for (int j = 0; j < missing.size(); j++) {
+                int i = missing.get(j);
+                out[i] = fetched.get(j);
+                forecastCache.put(forecastKey(geos.get(i), days), out[i]);
+            }
+        }
+        return List.of(out);
+    }
+
+    // ~1 km buckets: nearby lookups of the same place share an entry
+    private static String forecastKey(Geo geo, int days) {
+        return String.format(
+            Locale.ROOT,
+            "%.2f,%.2f|%d|%s",
+            geo.lat(),
+            geo.lon(),
+            days,
+            geo.tz()
+        );
+    }
+
+    private static List<OpenMeteoJson.Forecast> forecastRemote(
+        List<Geo> geos,
+        int days
+    ) throws Exception {
         String url =
             "https://api.open-meteo.com/v1/forecast" +
             "?latitude=" +
-            geo.lat +
+            joined(geos, g -> String.valueOf(g.lat())) +
             "&longitude=" +
-            geo.lon +
+            joined(geos, g -> String.valueOf(g.lon())) +
             "&current_weather=true" +
             "&daily=weathercode,temperature_2m_max,temperature_2m_min" +
             "&forecast_days=" +
             days +
             "&temperature_unit=fahrenheit" +
             "&timezone=" +
-            tz;
-        return getJson(URI.create(url));
+            joined(geos, g -> URLEncoder.encode(g.tz(), StandardCharsets.UTF_8));
+        return getJson(URI.create(url), OpenMeteoJson::forecasts);
+    }
+
+    private static String joined(List<Geo> geos, Function<Geo, String> field) {
+        return geos.stream().map(field).collect(Collectors.joining(","));
     }
 
-    private static JsonNode getJson(URI uri) throws Exception {
+    /** GETs {@code uri} and hands the (gunzipped) body to {@code reader} as a token stream. */
+    private static <T> T getJson(URI uri, OpenMeteoJson.Reader<T> reader)
+        throws Exception {
         HttpRequest req = HttpRequest.newBuilder(uri)
             .GET()
             .timeout(Duration.ofSeconds(20))
             .header("Accept", "application/json")
+            .header("Accept-Encoding", "gzip")
             .build();
-        HttpResponse<String> res = HTTP.send(
+        HttpResponse<InputStream> res = HTTP.send(
             req,
-            HttpResponse.BodyHandlers.ofString()
+            HttpResponse.BodyHandlers.ofInputStream()
         );
         if (res.statusCode() < 200 || res.statusCode() >= 300) {
+            res.body().close();
             throw new IllegalStateException(
                 "HTTP " + res.statusCode() + " from " + uri
             );
         }
-        return JSON.readTree(res.body());
-    }
-
-    static String describeWeatherCode(Integer code) {
-        if (code == null) return "Unknown";
-        return WMO_WEATHER_CODES.getOrDefault(code, "Unknown");
-    }
-
-    private static Double jsonDoubleOrNull(JsonNode node, String field) {
-        JsonNode child = node.path(field);
-        if (child.isMissingNode() || child.isNull()) return null;
-        return child.asDouble();
+        try (
+            InputStream body = decoded(res);
+            JsonParser parser = JSON.createParser(body)
+        ) {
+            return reader.read(parser);
+        }
     }
 
-    private static Double jsonDoubleOrNull(JsonNode array, int index) {
-        JsonNode child = array.path(index);
-        if (child.isMissingNode() || child.isNull()) return null;
-        return child.asDouble();
+    // HttpClient leaves Content-Encoding to the caller
+    private static InputStream decoded(HttpResponse<InputStream> res)
+        throws IOException {
+        boolean gzip = res
+            .headers()
+            .firstValue("Content-Encoding")
+            .map(e -> e.trim().equalsIgnoreCase("gzip"))
+            .orElse(false);
+        return gzip ? new GZIPInputStream(res.body()) : res.body();
     }
 
-    private static Integer jsonIntOrNull(JsonNode node, String field) {
-        JsonNode child = node.path(field);
-        if (child.isMissingNode() || child.isNull()) return null;
-        return child.asInt();
+    private static Path envPath(String name) {
+        String env = System.getenv(name);
+        return (env == null || env.isBlank()) ? null : Path.of(env.trim());
     }
 
-    private static Integer jsonIntOrNull(JsonNode array, int index) {
-        JsonNode child = array.path(index);
-        if (child.isMissingNode() || child.isNull()) return null;
-        return child.asInt();
+    static String describeWeatherCode(Integer code) {
+        if (code == null) return "Unknown";
+        return WMO_WEATHER_CODES.getOrDefault(code, "Unknown");
     }
 
-    private static Long jsonWindMph(JsonNode node, String field) {
-        JsonNode child = node.path(field);
-        if (child.isMissingNode() || child.isNull()) return null;
-        return Math.round(child.asDouble() / 1.60934);
+    /** Open-Meteo reports wind in km/h. */
+    static Long windMph(Double kmh) {
+        if (kmh == null) return null;
+        return Math.round(kmh / 1.60934);
     }
 }
@@ -0,0 +1,177 @@
+package com.williamcallahan.chatclient.ui;
+
+/**
+ * Single-pass scanner for ANSI-styled text.
+ * Measures, strips, pads, and truncates without regex and without intermediate Strings;
+ * inputs that need no change are returned as-is. Backs the {@link TuiTheme} text helpers,
+ * which run for every visible line on every frame.
+ */
+final class AnsiText {
+
+    private AnsiText() {}
+
+    private static final char ESC = '\u001B';
+    private static final char BEL = '\u0007';
+
+    /**
+     * Returns the end index (exclusive) of the escape sequence starting at {@code pos},
+     * or {@code pos} if none starts there. Recognizes CSI (ESC [ params final) and
+     * OSC (ESC ] ... BEL or ESC \) sequences; unterminated sequences are not consumed.
+     */
+    static int sequenceEnd(CharSequence text, int pos) {
+        int n = text.length();
+        if (pos + 1 >= n || text.charAt(pos) != ESC) return pos;
+        char kind = text.charAt(pos + 1);
+
+        if (kind == '[') {
+            int i = pos + 2;
+            while (i < n && text.charAt(i) >= 0x30 && text.charAt(i) <= 0x3F) i++;
+            while (i < n && text.charAt(i) >= 0x20 && text.charAt(i) <= 0x2F) i++;
+            if (i < n && text.charAt(i) >= 0x40 && text.charAt(i) <= 0x7E) {
+                return i + 1;
+            }
+            return pos;
+        }
+
+        if (kind == ']') {
+            for (int i = pos + 2; i < n; i++) {
+                char c = text.charAt(i);
+                if (c == BEL) return i + 1;
+                if (c == ESC && i + 1 < n && text.charAt(i + 1) == '\\') {
+                    return i + 2;
+                }
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Returns the visual width of the text in terminal cells, excluding escape sequences.
+     * Wide and zero-width code points are measured with {@link DisplayWidth}.
+     */
+    static int visualWidth(String text) {
+        if (text == null) return 0;
+        int n = text.length();
+        int width = 0;
+        int i = 0;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c < 0x7F) {
+                width++;
+                i++;
+                continue;
+            }
+            if (c == ESC) {
+                int end = sequenceEnd(text, i);
+                if (end > i) {
+                    i = end;
+                    continue;
+                }
+            }
+            int cp = text.codePointAt(i);
+            width += DisplayWidth.of(cp);
+            i += Character.charCount(cp);
+        }
+        return width;
+    }
+
+    /** Removes escape sequences; returns the input itself when it contains none. */
+    static String strip(String text) {
+        if (text == null) return "";
+        int first = text.indexOf(ESC);
+        if (first < 0) return text;
+
+        int n = text.length();
+        StringBuilder out = new StringBuilder(n);
+        out.append(text, 0, first);
+        int i = first;
+        while (i < n) {
+            if (text.charAt(i) == ESC) {
+                int end = sequenceEnd(text, i);
+                if (end > i) {
+                    i = end;
+                    continue;
+                }
+            }
+            out.append(text.charAt(i));
+            i++;
+        }
+        return out.toString();
+    }
+
+    /** Pads with trailing spaces to a visual width; returns the input when already wide enough. */
+    static String padRight(String text, int width) {
+        if (text == null) text = "";
+        int missing = width - visualWidth(text);
+        if (missing <= 0) return text;
+        StringBuilder out = new StringBuilder(text.length() + missing);
+        out.append(text);
+        appendSpaces(out, missing);
+        return out.toString();
+    }
+
+    /** Left-pads so the text is centered within a visual width. */
+    static String center(String text, int width) {
+        if (text == null) text = "";
+        int textWidth = visualWidth(text);
+        if (textWidth >= width) return text;
+        int padding = (width - textWidth) / 2;
+        StringBuilder out = new StringBuilder(text.length() + padding);
+        appendSpaces(out, padding);
+        out.append(text);
+        return out.toString();
+    }
+
+    /**
+     * Truncates to a visual width, appending "..." when there is room for it.
+     * Escape sequences before the cut are kept, and a reset is appended if styling
+     * would otherwise remain open. A wide character that would straddle the cut is dropped
+     * rather than split, so the result may be one cell narrower than requested.
+     */
+    static String truncate(String text, int width) {
+        if (text == null) return "";
+        if (visualWidth(text) <= width) return text;
+        if (width <= 0) return "";
+
+        boolean ellipsis = width > 3;
+        int target = ellipsis ? width - 3 : width;
+        int n = text.length();
+        StringBuilder out = new StringBuilder(Math.min(n, target * 2 + 16));
+        int visible = 0;
+        int i = 0;
+        boolean styled = false;
+
+        while (i < n && visible < target) {
+            int end = sequenceEnd(text, i);
+            if (end > i) {
+                out.append(text, i, end);
+                if (isSgr(text, i, end)) styled = !isReset(text, i, end);
+                i = end;
+                continue;
+            }
+            int cp = text.codePointAt(i);
+            int cells = DisplayWidth.of(cp);
+            if (visible + cells > target) break;
+            out.appendCodePoint(cp);
+            visible += cells;
+            i += Character.charCount(cp);
+        }
+
+        if (styled) out.append(ESC).append("[0m");
+        if (ellipsis) out.append("...");
+        return out.toString();
+    }
+
+    private static boolean isSgr(String text, int start, int end) {
+        return text.charAt(start + 1) == '[' && text.charAt(end - 1) == 'm';
+    }
+
+    private static boolean isReset(String text, int start, int end) {
+        int len = end - start;
+        return len == 3 || (len == 4 && text.charAt(start + 2) == '0');
+    }
+
+    private static void appendSpaces(StringBuilder out, int count) {
+        for (int i = 0; i < count; i++) out.append(' ');
+    }
+}
@@ -66,6 +66,9 @@ public class ApiKeyPromptScreen extends ConfigPromptScreen {
         if (model != null) {
             convoBuilder.defaultModel(model);
         }
+        if ("responses".equalsIgnoreCase(config.resolveApiFamily())) {
+            convoBuilder.apiFamily(Conversation.ApiFamily.RESPONSES);
+        }
 
         Conversation convo = convoBuilder.build();
         ChatConversationScreen next = new ChatConversationScreen(
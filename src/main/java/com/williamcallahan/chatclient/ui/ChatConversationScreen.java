@@ -9,22 +9,31 @@ import com.williamcallahan.chatclient.domain.Conversation;
 import com.williamcallahan.chatclient.domain.Role;
 import com.williamcallahan.applemaps.AppleMaps;
 import com.williamcallahan.chatclient.service.AppleMapsService;
+import com.williamcallahan.chatclient.service.Cancellation;
 import com.williamcallahan.chatclient.service.ChatCompletionService;
+import com.williamcallahan.chatclient.service.EndpointPool;
+import com.williamcallahan.chatclient.service.ModelListCache;
 import com.williamcallahan.chatclient.service.OpenAiService;
+import com.williamcallahan.chatclient.service.RequestCancelledException;
+import com.williamcallahan.chatclient.service.ResponsesService;
 import com.williamcallahan.chatclient.service.SummaryService;
 import com.williamcallahan.chatclient.service.ToolExecutor;
+import com.williamcallahan.chatclient.service.UsageStats;
 import com.williamcallahan.chatclient.service.tools.GeocodeAddressTool;
 import com.williamcallahan.chatclient.service.tools.PlaceSearchTool;
 import com.williamcallahan.chatclient.service.tools.Tool;
+import com.williamcallahan.chatclient.service.tools.WeatherComparisonTool;
 import com.williamcallahan.chatclient.service.tools.WeatherForecastTool;
 import com.williamcallahan.chatclient.ui.maps.PlacesOverlay;
 import com.williamcallahan.chatclient.ui.slash.ConfigSlashCommand;
+import com.williamcallahan.chatclient.ui.slash.EndpointsSlashCommand;
 import com.williamcallahan.chatclient.ui.slash.LocateSlashCommand;
 import com.williamcallahan.chatclient.ui.slash.ModelSlashCommand;
+import com.williamcallahan.chatclient.ui.slash.PerfSlashCommand;
 import com.williamcallahan.chatclient.ui.slash.SlashCommand;
 import com.williamcallahan.chatclient.ui.slash.SlashCommands;
+import com.williamcallahan.chatclient.ui.slash.StatsSlashCommand;
 import com.williamcallahan.chatclient.ui.slash.WeatherSlashCommand;
-import com.williamcallahan.tui4j.ansi.TextWrapper;
 import com.williamcallahan.tui4j.compat.bubbles.spinner.Spinner;
 import com.williamcallahan.tui4j.compat.bubbles.spinner.SpinnerType;
 import com.williamcallahan.tui4j.compat.bubbles.spinner.TickMessage;
@@ -48,13 +57,18 @@ import com.williamcallahan.tui4j.compat.lipgloss.border.StandardBorder;
 import com.williamcallahan.tui4j.input.MouseClickMessage;
 import com.williamcallahan.tui4j.input.MouseTarget;
 import com.williamcallahan.tui4j.input.MouseTargetProvider;
+import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import java.util.function.Function;
 
 /**
@@ -92,7 +106,8 @@ public final class ChatConversationScreen
             )
         );
 
-    private record AssistantReplyMessage(String text) implements Message {}
+    private record AssistantReplyMessage(String text, Map<String, Object> usage)
+        implements Message {}
 
     private record LocalDisplayMessage(String text) implements Message {}
 
@@ -104,6 +119,25 @@ public final class ChatConversationScreen
         Throwable cause
     ) implements Message {}
 
+    /** Model ids fetched in the background; {@code open} when the palette is waiting on them. */
+    private record ModelListMessage(
+        List<String> models,
+        Throwable error,
+        boolean open
+    ) implements Message {}
+
+    /** The in-flight LLM request stopped after Esc or Ctrl+C. */
+    private record RequestCancelledMessage() implements Message {}
+
+    /** Events streamed from the in-flight reply since the last such message. */
+    private record ReplyEventsMessage(
+        ReplyStream stream,
+        List<ReplyStream.Event> events
+    ) implements Message {}
+
+    /** A batch of history lines re-wrapped in the background after a resize. */
+    private record HistoryRewrapMessage(HistoryRewrap.Batch batch) implements Message {}
+
     private record HistoryRender(
         List<String> visibleStyled,
         List<String> visiblePlain,
@@ -117,6 +151,7 @@ public final class ChatConversationScreen
 
     private final OpenAiService openAiService;
     private final ChatCompletionService chatCompletionService;
+    private final WeatherForecastTool weatherTool;
     private final ToolExecutor toolExecutor;
     private final SummaryService summaryService;
     private final List<SlashCommand> slashCommands = SlashCommands.defaults();
@@ -128,14 +163,40 @@ public final class ChatConversationScreen
     private final boolean printToScrollback;
     private final boolean mouseSelectionEnabled;
     private final boolean showToolMessages;
+    private final PerfMonitor perf;
+    private final ModelListCache modelListCache;
+    private final boolean streamReplies;
     private boolean needsModelSelection;
 
     private int width = 80;
     private int height = 24;
     private static final int MAX_COMPOSER_LINES = 6;
+    // Border plus padding across the frame, taken from the style renderFrame() draws with
+    private static final int FRAME_HORIZONTAL_SIZE =
+        frameStyle().getHorizontalFrameSize();
 
     private boolean waiting = false;
     private final HistoryViewport historyViewport = new HistoryViewport();
+    private final HistoryRenderCache historyRenderCache =
+        new HistoryRenderCache(this::renderMessageLines);
+    private final HistoryIndex historyIndex = new HistoryIndex();
+    private int historyIndexWidth = -1;
+    private int historyIndexedMessages = 0;
+    private String historyLastIndexedId = null;
+    private long historyGeneration = 0;
+    private HistoryRewrap historyRewrap = null;
+    private int historyRewrapRemaining = 0;
+
+    // Streaming reply shown below the history until the final message is appended
+    private static final String DRAFT_ID = "draft";
+    private ReplyStream replyStream = null;
+    private Cancellation activeRequest = null;
+    private final StringBuilder replyDraft = new StringBuilder();
+    private long replyFirstTokenNanos = -1;
+    private boolean draftIndexed = false;
+    private List<String> draftLines = List.of();
+    private int draftLinesWidth = -1;
+    private int draftLinesLength = -1;
     private final MouseSelectionController mouseSelection =
         new MouseSelectionController();
     private List<MouseTarget> mouseTargets = List.of();
@@ -151,6 +212,14 @@ public final class ChatConversationScreen
 
     private Spinner spinner = new Spinner(SpinnerType.DOT);
 
+    // Dirty-region tracking: spinner ticks only change the status row
+    private final FrameCache frameCache = new FrameCache();
+    private boolean frameDirty = true;
+    private boolean frameHasOverlay = false;
+    private String frameTitleTransients = null;
+    private TitleKey titleBorderKey = null;
+    private String titleBorder = "";
+
     // Paste handling state
     private record PastedContent(
         int index,
@@ -182,12 +251,22 @@ public final class ChatConversationScreen
             resolveMouseMode()
         );
         this.showToolMessages = "1".equals(System.getenv("BRIEF_SHOW_TOOLS"));
+        this.perf = new PerfMonitor("1".equals(System.getenv("BRIEF_PERF")));
+        this.streamReplies = !"0".equals(System.getenv("BRIEF_STREAM"));
 
         this.openAiService = new OpenAiService(config);
         this.chatCompletionService = new ChatCompletionService(openAiService);
+        this.modelListCache = new ModelListCache(
+            openAiService,
+            config.configDir().resolve("cache")
+        );
+        this.weatherTool = WeatherForecastTool.shared(
+            config.configDir().resolve("cache")
+        );
         this.toolExecutor = new ToolExecutor(
             chatCompletionService,
-            buildTools(config)
+            new ResponsesService(openAiService),
+            buildTools(config, weatherTool)
         );
         this.summaryService = new SummaryService(chatCompletionService, config);
 
@@ -212,9 +291,13 @@ public final class ChatConversationScreen
         return mode;
     }
 
-    private static List<Tool> buildTools(Config config) {
+    private static List<Tool> buildTools(
+        Config config,
+        WeatherForecastTool weatherTool
+    ) {
         List<Tool> tools = new ArrayList<>();
-        tools.add(new WeatherForecastTool());
+        tools.add(weatherTool);
+        tools.add(new WeatherComparisonTool(weatherTool));
 
         // Add Apple Maps tools if configured
         if (AppleMapsService.isConfigured(config)) {
@@ -238,16 +321,20 @@ public final class ChatConversationScreen
 
     @Override
     public UpdateResult<? extends Model> update(Message msg) {
+        if (!(msg instanceof TickMessage)) frameDirty = true;
+
         if (msg instanceof WindowSizeMessage w) {
             width = Math.max(40, w.width());
             height = Math.max(12, w.height());
             composer.setWidth(Math.max(20, width - 8));
+            Command rewrap = rewrapHistory();
 
             if (needsModelSelection) {
                 needsModelSelection = false;
-                return openModelPalette();
+                UpdateResult<? extends Model> palette = openModelPalette();
+                return UpdateResult.from(this, batch(rewrap, palette.command()));
             }
-            return UpdateResult.from(this);
+            return UpdateResult.from(this, rewrap);
         }
 
         if (msg instanceof MouseMessage mouse && mouse.isWheel()) {
@@ -305,8 +392,29 @@ public final class ChatConversationScreen
     }
 
     private UpdateResult<? extends Model> handleAsyncMessage(Message msg) {
+        if (msg instanceof HistoryRewrapMessage rewrap) {
+            return UpdateResult.from(this, applyHistoryRewrap(rewrap.batch()));
+        }
+        if (msg instanceof ReplyEventsMessage reply) {
+            return UpdateResult.from(this, applyReplyEvents(reply));
+        }
+        if (msg instanceof ModelListMessage list) {
+            return applyModelList(list);
+        }
+        if (msg instanceof RequestCancelledMessage) {
+            recordCancelledReply();
+            waiting = false;
+            historyViewport.follow();
+            return UpdateResult.from(this);
+        }
         if (msg instanceof AssistantReplyMessage reply) {
-            append(Role.ASSISTANT, ChatMessage.Source.LLM_OUTPUT, reply.text());
+            endReplyStream();
+            append(
+                Role.ASSISTANT,
+                ChatMessage.Source.LLM_OUTPUT,
+                reply.text(),
+                reply.usage()
+            );
             waiting = false;
             historyViewport.follow();
             return UpdateResult.from(
@@ -323,6 +431,7 @@ public final class ChatConversationScreen
             );
         }
         if (msg instanceof LlmErrorMessage error) {
+            endReplyStream();
             waiting = false;
             historyViewport.follow();
             return UpdateResult.from(
@@ -347,6 +456,7 @@ public final class ChatConversationScreen
         Message msg
     ) {
         if (KeyAliases.getKeyType(KeyAlias.KeyCtrlC) == key.type()) {
+            if (cancelActiveRequest()) return UpdateResult.from(this);
             return UpdateResult.from(this, QuitMessage::new);
         }
         if (KeyType.keyESC == key.type()) {
@@ -397,6 +507,7 @@ public final class ChatConversationScreen
             slashPalette.close();
             return UpdateResult.from(this);
         }
+        if (cancelActiveRequest()) return UpdateResult.from(this);
         return UpdateResult.from(this, QuitMessage::new);
     }
 
@@ -690,14 +801,21 @@ public final class ChatConversationScreen
 
     @Override
     public String view() {
-        int viewportWidth = Math.max(40, width);
+        perf.beginFrame();
+        String frame = renderFrame();
+        perf.endFrame();
+        return frame;
+    }
+
+    private String renderFrame() {
+        int viewportWidth = viewportWidth();
         int viewportHeight = Math.max(12, height);
 
-        // Use only left, right, and bottom borders - we'll render top border manually with title
-        Style frame = Style.newStyle()
-            .border(StandardBorder.NormalBorder, false, true, true, true)
-            .borderForeground(TuiTheme.BORDER)
-            .padding(0, 1, 0, 1);
+        String statusOnlyFrame = viewStatusOnly(viewportWidth, viewportHeight);
+        if (statusOnlyFrame != null) return statusOnlyFrame;
+        frameDirty = false;
+
+        Style frame = frameStyle();
 
         int frameWidth = Math.max(
             1,
@@ -715,10 +833,7 @@ public final class ChatConversationScreen
         );
         frame.width(frameWidth).height(frameHeight);
 
-        int innerWidth = Math.max(
-            20,
-            viewportWidth - frame.getHorizontalFrameSize()
-        );
+        int innerWidth = innerWidth(viewportWidth);
         // Subtract 1 for our custom top border line
         int innerHeight = Math.max(
             4,
@@ -733,26 +848,14 @@ public final class ChatConversationScreen
             renderComposerLine("", 0, innerWidth, 0)
         );
 
-        String statusLeft = "";
-        if (waiting) {
-            Style spinnerStyle = TuiTheme.spinner();
-            Style textStyle = TuiTheme.hint();
-            statusLeft =
-                spinnerStyle.render(spinner.view()) +
-                " " +
-                textStyle.render("thinking...");
-        }
-        String rightHints = TuiTheme.shortcutRow(
-            TuiTheme.shortcutHint("newline", "Ctrl+J"),
-            TuiTheme.shortcutHint("/", "commands"),
-            TuiTheme.shortcutHint("esc", "quit")
-        );
-        String statusRow = joinLeftRight(statusLeft, rightHints, innerWidth);
+        String statusRow = renderStatusRow(innerWidth);
 
         int dividerHeight = 1;
         int composerHeight = composerLines.size();
+        int perfHeight = perf.enabled() ? 1 : 0;
         int statusHeight = 1;
-        int fixedHeight = dividerHeight + composerHeight + statusHeight;
+        int fixedHeight =
+            dividerHeight + composerHeight + perfHeight + statusHeight;
         int historyHeight = Math.max(1, innerHeight - fixedHeight);
 
         List<String> lines = new ArrayList<>();
@@ -835,9 +938,15 @@ public final class ChatConversationScreen
             lines.add(TuiTheme.padRight(line, innerWidth));
         }
 
+        if (perf.enabled()) {
+            String hud = TuiTheme.truncate(perf.hud(), innerWidth);
+            lines.add(TuiTheme.padRight(TuiTheme.hint().render(hud), innerWidth));
+        }
+
         lines.add(TuiTheme.padRight(statusRow, innerWidth));
         int statusRowIndex = lines.size() - 1;
 
+        long overlayStart = System.nanoTime();
         PaletteOverlay.Overlay slashOverlay = slashPalette.applyOverlay(
             lines,
             innerWidth,
@@ -865,6 +974,15 @@ public final class ChatConversationScreen
                 innerHeight,
                 dividerRow
             );
+        perf.addSection(
+            PerfMonitor.Section.OVERLAY,
+            System.nanoTime() - overlayStart
+        );
+        frameHasOverlay =
+            slashOverlay != null ||
+            modelOverlay != null ||
+            configOverlay != null ||
+            placesOverlayRendered != null;
         slashOverlayLayout = (slashOverlay == null)
             ? null
             : slashOverlay.layout();
@@ -898,9 +1016,128 @@ public final class ChatConversationScreen
 
         // Render custom top border with title embedded
         String topBorder = renderTitleBorder(innerWidth + 2); // +2 for left/right padding
+        frameTitleTransients = titleTransients();
+
+        List<ChatMessage> messages = conversation.getMessages();
+        frameCache.store(
+            topBorder,
+            framedContent,
+            statusRowIndex < innerHeight ? statusRowIndex : -1,
+            viewportWidth,
+            viewportHeight,
+            messages.size(),
+            messages.isEmpty() ? null : idOf(messages.getLast())
+        );
         return topBorder + "\n" + framedContent;
     }
 
+    private int viewportWidth() {
+        return Math.max(40, width);
+    }
+
+    /** Width left for content inside the frame at this viewport width. */
+    private static int innerWidth(int viewportWidth) {
+        return Math.max(20, viewportWidth - FRAME_HORIZONTAL_SIZE);
+    }
+
+    /** A new frame style; sized per render, so each caller gets its own. */
+    private static Style frameStyle() {
+        // Use only left, right, and bottom borders - we'll render top border manually with title
+        return Style.newStyle()
+            .border(StandardBorder.NormalBorder, false, true, true, true)
+            .borderForeground(TuiTheme.BORDER)
+            .padding(0, 1, 0, 1);
+    }
+
+    /**
+     * Fast path for frames where only the status row can have changed (spinner ticks while
+     * waiting): patches that row, and the perf HUD just above it when shown, into the
+     * previous frame instead of re-rendering history, composer, overlays and the border.
+     * Messages appended in the background, overlays, and any other update invalidate it.
+     *
+     * @return the patched frame, or null when a full render is needed
+     */
+    private String viewStatusOnly(int viewportWidth, int viewportHeight) {
+        if (frameDirty || frameHasOverlay) return null;
+        List<ChatMessage> messages = conversation.getMessages();
+        if (
+            !frameCache.reusable(
+                viewportWidth,
+                viewportHeight,
+                messages.size(),
+                messages.isEmpty() ? null : idOf(messages.getLast())
+            )
+        ) {
+            return null;
+        }
+
+        int innerWidth = innerWidth(viewportWidth);
+        String edge = TuiTheme.render(TuiTheme.border(), "│");
+        String statusRow =
+            edge +
+            " " +
+            TuiTheme.padRight(renderStatusRow(innerWidth), innerWidth) +
+            " " +
+            edge;
+        String hudRow = null;
+        if (perf.enabled()) {
+            String hud = TuiTheme.truncate(perf.hud(), innerWidth);
+            hudRow =
+                edge +
+                " " +
+                TuiTheme.padRight(TuiTheme.hint().render(hud), innerWidth) +
+                " " +
+                edge;
+        }
+
+        // The title only changes here when a transient status or error appears or expires
+        String transients = titleTransients();
+        String topBorder = null;
+        if (!Objects.equals(transients, frameTitleTransients)) {
+            topBorder = renderTitleBorder(innerWidth + 2);
+            frameTitleTransients = transients;
+        }
+        return frameCache.patch(hudRow, statusRow, topBorder);
+    }
+
+    private String titleTransients() {
+        long nowMs = System.currentTimeMillis();
+        return (
+            mouseSelection.transientStatus(nowMs) +
+            "\u0000" +
+            config.transientError(nowMs)
+        );
+    }
+
+    /** Renders the status row: spinner while waiting on the left, shortcut hints on the right. */
+    private String renderStatusRow(int innerWidth) {
+        String statusLeft = "";
+        if (waiting) {
+            Style spinnerStyle = TuiTheme.spinner();
+            Style textStyle = TuiTheme.hint();
+            String activity;
+            if (activeRequest != null && activeRequest.isCancelled()) {
+                activity = TuiTheme.render(textStyle, "cancelling...");
+            } else if (replyFirstTokenNanos < 0) {
+                activity = TuiTheme.render(textStyle, "thinking...");
+            } else {
+                activity = textStyle.render(
+                    "streaming · first token %.2fs".formatted(
+                        replyFirstTokenNanos / 1_000_000_000.0
+                    )
+                );
+            }
+            statusLeft =
+                TuiTheme.render(spinnerStyle, spinner.view()) + " " + activity;
+        }
+        String rightHints = TuiTheme.shortcutRow(
+            TuiTheme.shortcutHint("newline", "Ctrl+J"),
+            TuiTheme.shortcutHint("/", "commands"),
+            TuiTheme.shortcutHint("esc", activeRequest != null ? "cancel" : "quit")
+        );
+        return joinLeftRight(statusLeft, rightHints, innerWidth);
+    }
+
     private List<MouseTarget> buildMouseTargets(
         String statusRow,
         int statusRowIndex,
@@ -983,6 +1220,41 @@ public final class ChatConversationScreen
                 return openModelPalette();
             }
 
+            if (sc instanceof PerfSlashCommand) {
+                composer.reset();
+                if (PerfSlashCommand.isDump(text)) return dumpPerfHistograms();
+                perf.toggle();
+                return UpdateResult.from(this);
+            }
+
+            if (sc instanceof EndpointsSlashCommand) {
+                composer.reset();
+                append(
+                    Role.ASSISTANT,
+                    ChatMessage.Source.LOCAL,
+                    formatEndpointStats(
+                        openAiService.endpoints().stats(),
+                        chatCompletionService.hedgeStats()
+                    )
+                );
+                historyViewport.follow();
+                return UpdateResult.from(this);
+            }
+
+            if (sc instanceof StatsSlashCommand) {
+                composer.reset();
+                append(
+                    Role.ASSISTANT,
+                    ChatMessage.Source.LOCAL,
+                    formatUsageStats(
+                        UsageStats.totals(conversation.getMessages()),
+                        weatherTool.cacheStats()
+                    )
+                );
+                historyViewport.follow();
+                return UpdateResult.from(this);
+            }
+
             if (sc instanceof ConfigSlashCommand) {
                 composer.reset();
                 configPalette.open(config);
@@ -1050,17 +1322,54 @@ public final class ChatConversationScreen
         return submitToLlm(text, null);
     }
 
-    private UpdateResult<? extends Model> openModelPalette() {
+    private UpdateResult<? extends Model> dumpPerfHistograms() {
         try {
-            List<String> models = openAiService.modelChoices();
-            if (models.isEmpty()) {
-                return UpdateResult.from(this, () ->
-                    new LocalDisplayMessage("No models available from API")
-                );
+            String path = perf.dump(config.configDir().resolve("perf")).toString();
+            return UpdateResult.from(this, () ->
+                new LocalDisplayMessage("Saved frame histograms to " + path)
+            );
+        } catch (IOException e) {
+            return UpdateResult.from(this, () ->
+                new LocalDisplayMessage(
+                    "Could not save frame histograms: " + e.getMessage()
+                )
+            );
+        }
+    }
+
+    /**
+     * Opens the model palette from the cached list when there is one, refreshing it in the
+     * background once stale; otherwise opens it when the first fetch completes.
+     */
+    private UpdateResult<? extends Model> openModelPalette() {
+        ModelListCache.Snapshot cached = modelListCache.cached();
+        if (cached == null) {
+            return UpdateResult.from(this, fetchModels(true));
+        }
+        modelPalette.open(cached.models());
+        return UpdateResult.from(this, cached.stale() ? fetchModels(false) : null);
+    }
+
+    private Command fetchModels(boolean open) {
+        return () -> {
+            try {
+                return new ModelListMessage(modelListCache.refresh().join(), null, open);
+            } catch (CompletionException e) {
+                return new ModelListMessage(List.of(), e.getCause(), open);
+            }
+        };
+    }
+
+    private UpdateResult<? extends Model> applyModelList(ModelListMessage list) {
+        if (!list.open()) {
+            // Background revalidation: update the palette in place, stay quiet on failure
+            if (list.error() == null && !list.models().isEmpty() && modelPalette.isOpen()) {
+                modelPalette.replaceModels(list.models());
             }
-            modelPalette.open(models);
             return UpdateResult.from(this);
-        } catch (Exception e) {
+        }
+        if (list.error() != null) {
+            Throwable e = list.error();
             String error = e.getMessage();
             return UpdateResult.from(this, () ->
                 new LocalDisplayMessage(
@@ -1069,6 +1378,13 @@ public final class ChatConversationScreen
                 )
             );
         }
+        if (list.models().isEmpty()) {
+            return UpdateResult.from(this, () ->
+                new LocalDisplayMessage("No models available from API")
+            );
+        }
+        modelPalette.open(list.models());
+        return UpdateResult.from(this);
     }
 
     /** Opens the interactive places overlay in input mode. */
@@ -1151,7 +1467,7 @@ public final class ChatConversationScreen
                 try {
                     String out = sc.run(text);
                     return switch (sc.contextType()) {
-                        case ASSISTANT -> new AssistantReplyMessage(out);
+                        case ASSISTANT -> new AssistantReplyMessage(out, null);
                         case SYSTEM -> new SystemContextMessage(out);
                         case NONE -> new LocalDisplayMessage(out);
                     };
@@ -1214,17 +1530,121 @@ public final class ChatConversationScreen
     }
 
     private Command llmCall() {
-        return () -> {
+        ReplyStream stream = streamReplies ? new ReplyStream() : null;
+        replyStream = stream;
+        replyDraft.setLength(0);
+        replyFirstTokenNanos = -1;
+        Cancellation cancellation = new Cancellation();
+        activeRequest = cancellation;
+
+        Command call = () -> {
             try {
-                String replyText = toolExecutor.respond(
+                ToolExecutor.Reply reply = toolExecutor.respond(
                     conversation,
-                    conversation.getDefaultModel()
+                    conversation.getDefaultModel(),
+                    stream,
+                    cancellation
                 );
-                return new AssistantReplyMessage(replyText);
+                if (cancellation.isCancelled()) return new RequestCancelledMessage();
+                return new AssistantReplyMessage(reply.text(), reply.usage());
+            } catch (RequestCancelledException e) {
+                return new RequestCancelledMessage();
             } catch (Throwable t) {
+                if (cancellation.isCancelled()) return new RequestCancelledMessage();
                 return new LlmErrorMessage(formatLlmError(t), t);
+            } finally {
+                if (stream != null) stream.close();
             }
         };
+        return (stream == null) ? call : batch(call, awaitReplyEvents(stream));
+    }
+
+    private static Command awaitReplyEvents(ReplyStream stream) {
+        return () -> new ReplyEventsMessage(stream, stream.awaitEvents());
+    }
+
+    /** Folds streamed events into the draft, then waits for more unless the stream closed. */
+    private Command applyReplyEvents(ReplyEventsMessage reply) {
+        if (reply.stream() != replyStream) return null;
+        boolean closed = false;
+        for (ReplyStream.Event event : reply.events()) {
+            switch (event) {
+                case ReplyStream.Text text -> replyDraft.append(text.delta());
+                // Text streamed before a tool call is saved with that call's message
+                case ReplyStream.ToolCallStarted started -> replyDraft.setLength(0);
+                case ReplyStream.FirstToken first -> {
+                    if (replyFirstTokenNanos < 0) {
+                        replyFirstTokenNanos = first.nanos();
+                    }
+                }
+                case ReplyStream.Closed c -> closed = true;
+            }
+        }
+        return closed ? null : awaitReplyEvents(replyStream);
+    }
+
+    /**
+     * Aborts the in-flight LLM request, if any. The screen keeps waiting until the request
+     * thread reports back, which happens as soon as the HTTP call is torn down.
+     *
+     * @return whether there was a request to cancel
+     */
+    private boolean cancelActiveRequest() {
+        if (!waiting || activeRequest == null) return false;
+        activeRequest.cancel();
+        return true;
+    }
+
+    /** Keeps whatever text had streamed in, followed by a local note that is not sent to the model. */
+    private void recordCancelledReply() {
+        if (!replyDraft.toString().isBlank()) {
+            append(Role.ASSISTANT, ChatMessage.Source.LLM_OUTPUT, replyDraft.toString());
+        }
+        append(Role.ASSISTANT, ChatMessage.Source.LOCAL, "(cancelled)");
+        endReplyStream();
+    }
+
+    private void endReplyStream() {
+        activeRequest = null;
+        replyStream = null;
+        replyDraft.setLength(0);
+        replyFirstTokenNanos = -1;
+    }
+
+    /** Wrapped lines for the streaming draft, re-wrapped only when it grows or the width changes. */
+    private List<String> draftLines(int wrapWidth) {
+        if (
+            wrapWidth != draftLinesWidth ||
+            replyDraft.length() != draftLinesLength
+        ) {
+            String text = replyDraft.toString();
+            ChatMessage draft = new ChatMessage(
+                null,
+                conversation.getId(),
+                conversation.getMessages().size(),
+                Role.ASSISTANT,
+                ChatMessage.Source.LLM_OUTPUT,
+                text,
+                null,
+                conversation.getDefaultModel(),
+                null,
+                null,
+                null,
+                null,
+                null,
+                null
+            );
+            draftLines = List.copyOf(
+                renderMessageLines(
+                    draft,
+                    DisplaySanitizer.sanitize(text),
+                    wrapWidth
+                )
+            );
+            draftLinesWidth = wrapWidth;
+            draftLinesLength = replyDraft.length();
+        }
+        return draftLines;
     }
 
     private String formatLlmError(Throwable t) {
@@ -1241,6 +1661,141 @@ public final class ChatConversationScreen
         );
     }
 
+    private static String formatEndpointStats(
+        List<EndpointPool.Stats> stats,
+        ChatCompletionService.HedgeStats hedge
+    ) {
+        StringBuilder sb = new StringBuilder("Endpoints:");
+        for (EndpointPool.Stats s : stats) {
+            sb
+                .append("\n- ")
+                .append(s.baseUrl())
+                .append(s.healthy() ? " · up" : " · DOWN")
+                .append(" · weight ")
+                .append(s.weight())
+                .append(" · in flight ")
+                .append(s.outstanding())
+                .append(" · requests ")
+                .append(s.requests())
+                .append(" · failures ")
+                .append(s.failures())
+                .append(" · first byte ")
+                .append(formatMillis(s.firstByteMillis()))
+                .append(" · full response ")
+                .append(formatMillis(s.totalMillis()));
+        }
+        if (hedge != null) {
+            sb
+                .append("\nHedging: ")
+                .append(hedge.hedged())
+                .append(" of ")
+                .append(hedge.requests())
+                .append(" requests hedged · hedge won ")
+                .append(hedge.hedgeWins())
+                .append(" · delay ")
+                .append(
+                    hedge.delayMillis() < 0
+                        ? "warming up"
+                        : String.format("%.0fms", hedge.delayMillis())
+                );
+        }
+        return sb.toString();
+    }
+
+    private static String formatMillis(double millis) {
+        return millis == 0 ? "n/a" : String.format("%.0fms", millis);
+    }
+
+    private static String formatUsageStats(
+        UsageStats.Totals totals,
+        WeatherForecastTool.CacheStats weather
+    ) {
+        String weatherLine =
+            "\nWeather cache (this session): geocode " +
+            weather.geocodeHits() +
+            " hits / " +
+            weather.geocodeMisses() +
+            " misses · forecast " +
+            weather.forecastHits() +
+            " hits / " +
+            weather.forecastMisses() +
+            " misses";
+        if (totals.requests() == 0) {
+            return "No usage recorded in this conversation yet." + weatherLine;
+        }
+        StringBuilder sb = new StringBuilder("Usage (this conversation):");
+        sb
+            .append("\n- requests ")
+            .append(totals.requests())
+            .append(" · prompt ")
+            .append(totals.promptTokens())
+            .append(" tokens");
+        if (totals.cachedTokens() > 0) {
+            sb
+                .append(" (")
+                .append(totals.cachedTokens())
+                .append(" cached, ")
+                .append(totals.cachedTokens() * 100 / Math.max(1, totals.promptTokens()))
+                .append("%)");
+        }
+        sb
+            .append(" · completion ")
+            .append(totals.completionTokens())
+            .append(" tokens")
+            .append("\n- first byte avg ")
+            .append(String.format("%.0fms", totals.avgFirstByteMillis()))
+            .append(" · speed avg ")
+            .append(
+                totals.avgTokensPerSec() == 0
+                    ? "n/a"
+                    : String.format("%.1f tok/s", totals.avgTokensPerSec())
+            )
+            .append(" · tools ")
+            .append(String.format("%.0fms", totals.toolMillis()));
+        if (totals.toolResultOriginalTokens() > 0) {
+            sb
+                .append("\n- tool results ~")
+                .append(totals.toolResultTokens())
+                .append(" tokens (encoded from ~")
+                .append(totals.toolResultOriginalTokens())
+                .append(", ")
+                .append(
+                    100 -
+                    totals.toolResultTokens() * 100 / totals.toolResultOriginalTokens()
+                )
+                .append("% smaller)");
+        }
+
+        Map<String, Object> last = totals.last();
+        sb
+            .append("\nLast request: build ")
+            .append(String.format("%.0fms", UsageStats.number(last, UsageStats.BUILD_MS)))
+            .append(" · first byte ")
+            .append(
+                String.format("%.0fms", UsageStats.number(last, UsageStats.FIRST_BYTE_MS))
+            )
+            .append(" · total ")
+            .append(String.format("%.0fms", UsageStats.number(last, UsageStats.TOTAL_MS)));
+        if (last.containsKey(UsageStats.TOKENS_PER_SEC)) {
+            sb.append(
+                String.format(
+                    " · %.1f tok/s",
+                    UsageStats.number(last, UsageStats.TOKENS_PER_SEC)
+                )
+            );
+        }
+        if (last.containsKey(UsageStats.PROMPT_TOKENS)) {
+            sb
+                .append(" · prompt ")
+                .append((long) UsageStats.number(last, UsageStats.PROMPT_TOKENS))
+                .append(" · completion ")
+                .append((long) UsageStats.number(last, UsageStats.COMPLETION_TOKENS));
+        } else {
+            sb.append(" · no token counts from provider");
+        }
+        return sb.append(weatherLine).toString();
+    }
+
     private String formatPlaceForContext(AppleMapsService.PlaceResult place) {
         StringBuilder sb = new StringBuilder();
         sb.append("Selected place from Apple Maps:\n");
@@ -1268,9 +1823,11 @@ public final class ChatConversationScreen
         return sb.toString().trim();
     }
 
+    /** Inputs that fully determine the title border, used to memoize it between frames. */
+    private record TitleKey(int width, String info, String configError) {}
+
     private String renderTitleBorder(int width) {
         long nowMs = System.currentTimeMillis();
-        String title = "brief";
         String info = conversation.getDefaultModel();
         if (historyViewport.scrollOffsetLines() > 0) {
             info = info + "  ↑" + historyViewport.scrollOffsetLines() + "L";
@@ -1279,26 +1836,35 @@ public final class ChatConversationScreen
         if (status != null) {
             info = info + "  " + status;
         }
+        String configError = config.transientError(nowMs);
 
-        Style borderStyle = Style.newStyle().foreground(TuiTheme.BORDER);
-        Style titleStyle = Style.newStyle()
-            .foreground(TuiTheme.PRIMARY)
-            .bold(true);
-        Style infoStyle = Style.newStyle().foreground(TuiTheme.MUTED);
+        TitleKey key = new TitleKey(width, info, configError);
+        if (!key.equals(titleBorderKey)) {
+            titleBorder = composeTitleBorder(width, info, configError);
+            titleBorderKey = key;
+        }
+        return titleBorder;
+    }
 
-        String configError = config.transientError(nowMs);
+    private static String composeTitleBorder(
+        int width,
+        String info,
+        String configError
+    ) {
+        String title = "brief";
+        Style borderStyle = TuiTheme.border();
 
         // Border characters
-        String topLeft = borderStyle.render("┌");
-        String topRight = borderStyle.render("┐");
+        String topLeft = TuiTheme.render(borderStyle, "┌");
+        String topRight = TuiTheme.render(borderStyle, "┐");
         String horizontal = "─";
 
         // Calculate available space for content (width minus corners)
         int contentWidth = width - 2;
 
         // Render title and info
-        String titleRendered = titleStyle.render(title);
-        String infoRendered = infoStyle.render(info);
+        String titleRendered = TuiTheme.render(TuiTheme.brandTitle(), title);
+        String infoRendered = TuiTheme.muted().render(info);
 
         int titleVisualWidth = TuiTheme.visualWidth(title);
         int infoVisualWidth = TuiTheme.visualWidth(info);
@@ -1309,16 +1875,15 @@ public final class ChatConversationScreen
             int usedWidth = titleVisualWidth + infoVisualWidth + 4; // 4 for spaces around title and info
             int lineWidth = Math.max(0, contentWidth - usedWidth);
 
-            String line = borderStyle.render(horizontal.repeat(lineWidth));
             return (
                 topLeft +
-                borderStyle.render(horizontal + " ") +
+                TuiTheme.render(borderStyle, horizontal + " ") +
                 titleRendered +
-                borderStyle.render(" ") +
-                line +
-                borderStyle.render(" ") +
+                TuiTheme.render(borderStyle, " ") +
+                TuiTheme.borderRun(lineWidth) +
+                TuiTheme.render(borderStyle, " ") +
                 infoRendered +
-                borderStyle.render(" " + horizontal) +
+                TuiTheme.render(borderStyle, " " + horizontal) +
                 topRight
             );
         }
@@ -1343,13 +1908,17 @@ public final class ChatConversationScreen
 
         return (
             topLeft +
-            borderStyle.render(horizontal + " ") +
+            TuiTheme.render(borderStyle, horizontal + " ") +
             titleRendered +
-            borderStyle.render(" " + horizontal.repeat(leftLine) + " ") +
+            TuiTheme.render(borderStyle, " ") +
+            TuiTheme.borderRun(leftLine) +
+            TuiTheme.render(borderStyle, " ") +
             errorRendered +
-            borderStyle.render(" " + horizontal.repeat(rightLine) + " ") +
+            TuiTheme.render(borderStyle, " ") +
+            TuiTheme.borderRun(rightLine) +
+            TuiTheme.render(borderStyle, " ") +
             infoRendered +
-            borderStyle.render(" " + horizontal) +
+            TuiTheme.render(borderStyle, " " + horizontal) +
             topRight
         );
     }
@@ -1377,12 +1946,26 @@ public final class ChatConversationScreen
     }
 
     private HistoryRender renderHistory(int wrapWidth, int maxLines) {
-        String allHistory = renderAllHistory(wrapWidth);
-        String[] allLines = allHistory.isEmpty()
-            ? new String[0]
-            : allHistory.split("\n", -1);
+        long syncStart = System.nanoTime();
+        if (draftIndexed) {
+            historyIndex.removeLast();
+            draftIndexed = false;
+        }
+        syncHistoryIndex(wrapWidth);
+        if (!replyDraft.isEmpty()) {
+            historyIndex.append(DRAFT_ID, draftLines(wrapWidth));
+            draftIndexed = true;
+        }
+        long sanitizeNanos = historyRenderCache.drainSanitizeNanos();
+        perf.addSection(PerfMonitor.Section.SANITIZE, sanitizeNanos);
+        perf.addSection(
+            PerfMonitor.Section.WRAP,
+            System.nanoTime() - syncStart - sanitizeNanos
+        );
+        int totalLines = historyIndex.totalLines();
+        perf.lines(Math.min(maxLines, totalLines), totalLines);
 
-        if (allLines.length == 0) {
+        if (totalLines == 0) {
             List<String> empty = new ArrayList<>();
             Style emptyStyle = TuiTheme.hint();
             String emptyMsg = emptyStyle.render("Start a conversation...");
@@ -1392,20 +1975,22 @@ public final class ChatConversationScreen
             while (empty.size() < maxLines) empty.add("");
             List<String> visiblePlain = empty
                 .stream()
-                .map(TuiTheme::stripAnsi)
-                .map(ChatConversationScreen::rstrip)
+                .map(HistoryIndex::toPlain)
                 .toList();
             return new HistoryRender(empty, visiblePlain, List.of(), 0);
         }
 
         HistoryViewport.Window window = historyViewport.window(
-            allLines.length,
+            historyIndex,
             maxLines
         );
 
-        List<String> visibleStyled = new ArrayList<>();
-        for (int i = window.startInclusive(); i < window.endExclusive(); i++) {
-            visibleStyled.add(TuiTheme.padRight(allLines[i], wrapWidth));
+        List<String> visibleStyled = new ArrayList<>(maxLines);
+        for (String line : historyIndex.slice(
+            window.startInclusive(),
+            window.endExclusive()
+        )) {
+            visibleStyled.add(TuiTheme.padRight(line, wrapWidth));
         }
         while (visibleStyled.size() < maxLines) {
             visibleStyled.add(" ".repeat(wrapWidth));
@@ -1413,56 +1998,288 @@ public final class ChatConversationScreen
 
         List<String> visiblePlain = visibleStyled
             .stream()
-            .map(TuiTheme::stripAnsi)
-            .map(ChatConversationScreen::rstrip)
-            .toList();
-        List<String> allPlain = Arrays.stream(allLines)
-            .map(TuiTheme::stripAnsi)
-            .map(ChatConversationScreen::rstrip)
+            .map(HistoryIndex::toPlain)
             .toList();
 
         return new HistoryRender(
             visibleStyled,
             visiblePlain,
-            allPlain,
+            historyIndex.plainLines(),
             window.startInclusive()
         );
     }
 
-    private String renderAllHistory(int wrapWidth) {
-        StringBuilder out = new StringBuilder();
-        for (ChatMessage m : conversation.getMessages()) {
-            if (
-                m != null && m.source() == ChatMessage.Source.INTERNAL
-            ) continue;
+    /**
+     * Brings the history index up to date with the conversation.
+     * Appended messages are indexed incrementally; a width change or a rewritten message
+     * list (e.g. trimmed history) triggers a rebuild from the render cache.
+     */
+    private void syncHistoryIndex(int wrapWidth) {
+        List<ChatMessage> messages = conversation.getMessages();
+        boolean stale =
+            wrapWidth != historyIndexWidth ||
+            historyIndexedMessages > messages.size() ||
+            (historyIndexedMessages > 0 &&
+                !Objects.equals(
+                    historyLastIndexedId,
+                    idOf(messages.get(historyIndexedMessages - 1))
+                ));
+        if (stale) {
+            cancelHistoryRewrap();
+            historyIndex.clear();
+            historyIndexWidth = wrapWidth;
+            historyIndexedMessages = 0;
+            historyLastIndexedId = null;
+        }
+
+        for (int i = historyIndexedMessages; i < messages.size(); i++) {
+            ChatMessage m = messages.get(i);
+            if (isShownInHistory(m)) {
+                historyIndex.append(
+                    m.id(),
+                    historyRenderCache.lines(m, wrapWidth, showToolMessages)
+                );
+            }
+            historyIndexedMessages = i + 1;
+            historyLastIndexedId = idOf(m);
+        }
+    }
+
+    /** Wrap width of the history pane, the same inner width {@link #view()} renders at. */
+    private int historyWrapWidth() {
+        return innerWidth(viewportWidth());
+    }
+
+    /**
+     * Re-indexes history for a new width without wrapping every message on the UI thread.
+     * Messages get estimated placeholder lines, the ones in the visible window are wrapped
+     * right away, and the rest are wrapped on a virtual thread nearest-first and applied as
+     * {@link HistoryRewrapMessage} batches. Any earlier re-wrap job is cancelled.
+     *
+     * @return the command that delivers the first batch, or null if nothing is left to wrap
+     */
+    private Command rewrapHistory() {
+        int wrapWidth = historyWrapWidth();
+        if (wrapWidth == historyIndexWidth) return null;
+        int maxLines = Math.max(12, height);
+
+        cancelHistoryRewrap();
+        if (draftIndexed) {
+            historyIndex.removeLast();
+            draftIndexed = false;
+        }
+        Map<String, Integer> previousCounts = new HashMap<>();
+        for (int slot = 0; slot < historyIndex.messageCount(); slot++) {
+            previousCounts.put(
+                historyIndex.messageId(slot),
+                historyIndex.lineCount(slot)
+            );
+        }
+        int previousWidth = historyIndexWidth;
+
+        historyIndex.clear();
+        historyIndexWidth = wrapWidth;
+        List<ChatMessage> messages = conversation.getMessages();
+        List<ChatMessage> shown = new ArrayList<>();
+        List<Boolean> ready = new ArrayList<>();
+        for (ChatMessage m : messages) {
+            if (!isShownInHistory(m)) continue;
+            List<String> cached = historyRenderCache.cached(
+                m,
+                wrapWidth,
+                showToolMessages
+            );
+            historyIndex.append(
+                m.id(),
+                (cached != null)
+                    ? cached
+                    : placeholderLines(
+                        previousCounts.get(m.id()),
+                        previousWidth,
+                        wrapWidth
+                    )
+            );
+            shown.add(m);
+            ready.add(cached != null);
+        }
+        historyIndexedMessages = messages.size();
+        historyLastIndexedId = messages.isEmpty()
+            ? null
+            : idOf(messages.getLast());
+        if (shown.isEmpty()) return null;
+
+        // Wrap the slots the viewport will show first, walking away from its anchor
+        int anchorSlot;
+        int anchorOffset;
+        int step;
+        if (historyViewport.following()) {
+            anchorSlot = shown.size() - 1;
+            anchorOffset = 0;
+            step = -1;
+        } else {
+            anchorSlot = historyIndex.slotOf(historyViewport.anchorMessageId());
+            anchorOffset = historyViewport.anchorLineOffset();
+            if (anchorSlot < 0) {
+                int top = Math.min(
+                    historyViewport.lastTopLine(),
+                    Math.max(0, historyIndex.totalLines() - 1)
+                );
+                anchorSlot = historyIndex.locate(top).slot();
+                anchorOffset = 0;
+            }
+            step = 1;
+        }
+        int covered = -anchorOffset;
+        int slot = anchorSlot;
+        int firstVisible = anchorSlot;
+        int lastVisible = anchorSlot;
+        while (slot >= 0 && slot < shown.size() && covered < maxLines) {
+            if (!ready.get(slot)) {
+                historyIndex.replace(
+                    slot,
+                    historyRenderCache.lines(
+                        shown.get(slot),
+                        wrapWidth,
+                        showToolMessages
+                    )
+                );
+                ready.set(slot, true);
+            }
+            covered += historyIndex.lineCount(slot);
+            firstVisible = Math.min(firstVisible, slot);
+            lastVisible = Math.max(lastVisible, slot);
+            slot += step;
+        }
+
+        // Queue the rest, nearest to the visible window first
+        List<HistoryRewrap.Pending> pending = new ArrayList<>();
+        for (int distance = 1; ; distance++) {
+            int before = firstVisible - distance;
+            int after = lastVisible + distance;
+            if (before < 0 && after >= shown.size()) break;
+            for (int s : new int[] { after, before }) {
+                if (s >= 0 && s < shown.size() && !ready.get(s)) {
+                    ChatMessage m = shown.get(s);
+                    pending.add(
+                        new HistoryRewrap.Pending(
+                            s,
+                            m,
+                            historyRenderCache.displayText(m)
+                        )
+                    );
+                }
+            }
+        }
+        if (pending.isEmpty()) return null;
+
+        historyRewrap = new HistoryRewrap(
+            historyGeneration,
+            wrapWidth,
+            pending,
+            this::renderMessageLines
+        );
+        historyRewrapRemaining = pending.size();
+        historyRewrap.start();
+        return awaitHistoryRewrap(historyRewrap);
+    }
+
+    /** Estimates a message's line count at a new width from its count at the previous one. */
+    private static List<String> placeholderLines(
+        Integer previousCount,
+        int previousWidth,
+        int wrapWidth
+    ) {
+        // Label and trailing spacer don't scale with width; the body roughly does
+        int count = 3;
+        if (previousCount != null && previousWidth > 0) {
+            int body = Math.max(1, previousCount - 2);
+            count = 2 + (int) Math.ceil((double) body * previousWidth / wrapWidth);
+        }
+        return Collections.nCopies(count, "");
+    }
+
+    /** Applies a background re-wrap batch, then waits for the next one. */
+    private Command applyHistoryRewrap(HistoryRewrap.Batch batch) {
+        if (
+            historyRewrap == null ||
+            batch.generation() != historyRewrap.generation()
+        ) {
+            return null;
+        }
+        for (HistoryRewrap.Result result : batch.results()) {
+            historyRenderCache.put(
+                result.messageId(),
+                batch.wrapWidth(),
+                result.lines()
+            );
             if (
-                !showToolMessages &&
-                m != null &&
-                m.role() == Role.TOOL &&
-                m.toolCallId() != null &&
-                !m.toolCallId().isBlank()
-            ) continue;
-            out.append(renderMessageBlock(m, wrapWidth));
+                result.slot() < historyIndex.messageCount() &&
+                Objects.equals(
+                    historyIndex.messageId(result.slot()),
+                    result.messageId()
+                )
+            ) {
+                historyIndex.replace(result.slot(), result.lines());
+            }
         }
-        return TuiTheme.stripTrailingNewlines(out.toString());
+        historyRewrapRemaining -= batch.results().size();
+        if (!batch.done()) return awaitHistoryRewrap(historyRewrap);
+
+        historyRewrap = null;
+        if (historyRewrapRemaining > 0) {
+            // The job stopped early; rebuild synchronously from what is cached
+            historyIndexWidth = -1;
+        }
+        return null;
+    }
+
+    private static Command awaitHistoryRewrap(HistoryRewrap job) {
+        return () -> new HistoryRewrapMessage(job.awaitBatch());
+    }
+
+    private void cancelHistoryRewrap() {
+        historyGeneration++;
+        if (historyRewrap != null) {
+            historyRewrap.cancel();
+            historyRewrap = null;
+        }
+        historyRewrapRemaining = 0;
+    }
+
+    private boolean isShownInHistory(ChatMessage m) {
+        if (m == null) return false;
+        if (m.source() == ChatMessage.Source.INTERNAL) return false;
+        if (showToolMessages || m.role() != Role.TOOL) return true;
+        return m.toolCallId() == null || m.toolCallId().isBlank();
     }
 
-    private String renderMessageBlock(ChatMessage m, int wrapWidth) {
-        if (m == null) return "";
+    private static String idOf(ChatMessage m) {
+        return m == null ? null : m.id();
+    }
 
+    /**
+     * Renders a message as display lines: label, wrapped body, then a blank spacer line.
+     * Called once per message per wrap width via {@link HistoryRenderCache}, which also
+     * supplies the content already passed through {@link DisplaySanitizer}.
+     */
+    private List<String> renderMessageLines(
+        ChatMessage m,
+        String content,
+        int wrapWidth
+    ) {
         String label = switch (m.role()) {
-            case USER -> TuiTheme.userLabel().render(userName);
-            case ASSISTANT -> TuiTheme.assistantLabel().render("Assistant");
-            case SYSTEM -> TuiTheme.warning().render("System");
-            case TOOL -> TuiTheme.hint().render("Tool");
+            case USER -> TuiTheme.render(TuiTheme.userLabel(), userName);
+            case ASSISTANT -> TuiTheme.render(
+                TuiTheme.assistantLabel(),
+                "Assistant"
+            );
+            case SYSTEM -> TuiTheme.render(TuiTheme.warning(), "System");
+            case TOOL -> TuiTheme.render(TuiTheme.hint(), "Tool");
         };
 
-        StringBuilder out = new StringBuilder();
-        out.append(label).append("\n");
+        List<String> out = new ArrayList<>();
+        out.add(label);
 
-        String content = sanitizeForDisplay(
-            (m.content() == null) ? "" : m.content()
-        );
         if (
             m.role() == Role.ASSISTANT &&
             content.isBlank() &&
@@ -1471,45 +2288,25 @@ public final class ChatConversationScreen
         ) {
             String toolName = m.toolCalls().getFirst().name();
             String banner = ToolCallBanner.render(toolName, wrapWidth);
-            for (String line : banner.split("\n", -1)) {
-                out.append(line).append("\n");
-            }
+            out.addAll(Arrays.asList(banner.split("\n", -1)));
         } else {
-            String wrapped = new TextWrapper().wrap(
-                content,
-                Math.max(10, wrapWidth)
-            );
-            for (String line : wrapped.split("\n", -1)) {
-                out.append(line).append("\n");
-            }
+            out.addAll(WordWrap.wrap(content, Math.max(10, wrapWidth)));
         }
-        out.append("\n");
+        out.add("");
 
-        return out.toString();
-    }
-
-    /**
-     * Sanitizes text for terminal display.
-     *
-     * Pasted content frequently includes ANSI escape sequences (colors/cursor moves) that will
-     * corrupt the TUI layout if rendered directly. We strip common ANSI sequences and normalize
-     * newlines for predictable wrapping.
-     */
-    private static String sanitizeForDisplay(String s) {
-        if (s == null || s.isEmpty()) return "";
-        String out = s.replace("\r\n", "\n").replace('\r', '\n');
-        // Tabs render with terminal-dependent width; normalize to spaces so wrapping stays correct.
-        out = out.replace("\t", "    ");
-        // ANSI CSI sequences (most common).
-        out = out.replaceAll("\u001B\\[[0-?]*[ -/]*[@-~]", "");
-        // ANSI OSC sequences (window title, hyperlinks, etc.).
-        out = out.replaceAll("\u001B\\][^\u0007]*(\u0007|\u001B\\\\)", "");
-        // Strip other control characters that can corrupt terminal layout (keep newlines).
-        out = out.replaceAll("[\\x00-\\x08\\x0B\\x0C\\x0E-\\x1F\\x7F]", "");
         return out;
     }
 
     private void append(Role role, ChatMessage.Source source, String content) {
+        append(role, source, content, null);
+    }
+
+    private void append(
+        Role role,
+        ChatMessage.Source source,
+        String content,
+        Map<String, Object> usage
+    ) {
         int index = conversation.getMessages().size();
         conversation.addMessage(
             new ChatMessage(
@@ -1528,7 +2325,7 @@ public final class ChatConversationScreen
                 null,
                 null,
                 null,
-                null,
+                usage,
                 null
             )
         );
@@ -1574,13 +2371,6 @@ public final class ChatConversationScreen
         );
     }
 
-    private static String rstrip(String s) {
-        if (s == null || s.isEmpty()) return "";
-        int i = s.length() - 1;
-        while (i >= 0 && Character.isWhitespace(s.charAt(i))) i--;
-        return s.substring(0, i + 1);
-    }
-
     /**
      * Renders a clean input panel without repeated prompts.
      * Shows "› " on the first line only, continuation lines are indented.
@@ -1623,11 +2413,11 @@ public final class ChatConversationScreen
         int cursorPos
     ) {
         Style promptStyle = TuiTheme.inputPrompt();
-        Style textStyle = Style.newStyle().foreground(TuiTheme.PRIMARY);
+        Style textStyle = TuiTheme.inputText();
 
         String prefix;
         if (lineIndex == 0) {
-            prefix = promptStyle.render("› ");
+            prefix = TuiTheme.render(promptStyle, "› ");
         } else {
             prefix = "  "; // Indent continuation lines to align with first line
         }
@@ -1648,23 +2438,42 @@ public final class ChatConversationScreen
             }
             sb.append(textStyle.render(displayText));
         } else {
-            // Render with cursor
-            int pos = Math.min(cursorPos, text.length());
-
-            // Text before cursor
-            if (pos > 0) {
-                sb.append(textStyle.render(text.substring(0, pos)));
+            // Render with cursor; the column counts code points, not UTF-16 chars
+            int pos = text.offsetByCodePoints(
+                0,
+                Math.min(cursorPos, text.codePointCount(0, text.length()))
+            );
+            int cursorEnd = (pos < text.length())
+                ? text.offsetByCodePoints(pos, 1)
+                : pos;
+            String cursorChar = (cursorEnd > pos)
+                ? text.substring(pos, cursorEnd)
+                : " ";
+            int cursorCells = Math.max(1, DisplayWidth.of(cursorChar));
+
+            // Text before cursor, clipped from the left so the cursor stays visible
+            int start = 0;
+            int beforeCells = DisplayWidth.of(text.subSequence(0, pos));
+            while (beforeCells + cursorCells > textWidth && start < pos) {
+                int cp = text.codePointAt(start);
+                beforeCells -= DisplayWidth.of(cp);
+                start += Character.charCount(cp);
+            }
+            if (start < pos) {
+                sb.append(textStyle.render(text.substring(start, pos)));
             }
 
             // Cursor character (reverse video)
-            String cursorChar = (pos < text.length())
-                ? String.valueOf(text.charAt(pos))
-                : " ";
             sb.append("\u001b[7m").append(cursorChar).append("\u001b[0m");
 
-            // Text after cursor
-            if (pos + 1 < text.length()) {
-                sb.append(textStyle.render(text.substring(pos + 1)));
+            // Text after cursor, truncated to the cells that remain
+            int remaining = textWidth - beforeCells - cursorCells;
+            if (cursorEnd < text.length() && remaining > 0) {
+                String after = TuiTheme.truncate(
+                    text.substring(cursorEnd),
+                    remaining
+                );
+                sb.append(textStyle.render(after));
             }
         }
 
@@ -1678,10 +2487,13 @@ public final class ChatConversationScreen
         Style promptStyle = TuiTheme.inputPrompt();
         Style placeholderStyle = TuiTheme.hint();
 
-        String prefix = promptStyle.render("› ");
+        String prefix = TuiTheme.render(promptStyle, "› ");
         // Show cursor at start, then placeholder
         String cursor = "\u001b[7m \u001b[0m";
-        String placeholder = placeholderStyle.render("Ask me anything...");
+        String placeholder = TuiTheme.render(
+            placeholderStyle,
+            "Ask me anything..."
+        );
 
         return TuiTheme.padRight(prefix + cursor + placeholder, width);
     }
@@ -0,0 +1,78 @@
+package com.williamcallahan.chatclient.ui;
+
+/**
+ * Makes message text safe to lay out in the TUI.
+ *
+ * Pasted content and tool output frequently include ANSI escape sequences (colors, cursor
+ * moves, hyperlinks) and stray control characters that corrupt the layout if rendered
+ * directly. A single pass normalizes CRLF and lone CR to LF, expands tabs to 4-cell stops,
+ * drops CSI/OSC sequences, and removes the remaining C0/C1 controls. Text that needs none of
+ * this is returned as-is.
+ */
+final class DisplaySanitizer {
+
+    private DisplaySanitizer() {}
+
+    private static final int TAB_STOP = 4;
+    private static final char ESC = '\u001B';
+
+    /** Returns the display-safe form of {@code text}; never null. */
+    static String sanitize(String text) {
+        if (text == null || text.isEmpty()) return "";
+        int first = firstUnsafe(text);
+        if (first < 0) return text;
+
+        int n = text.length();
+        StringBuilder out = new StringBuilder(n + 16);
+        out.append(text, 0, first);
+        int column = columnAt(text, first);
+        int i = first;
+        while (i < n) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                out.append('\n');
+                column = 0;
+                i++;
+            } else if (c == '\r') {
+                out.append('\n');
+                column = 0;
+                i += (i + 1 < n && text.charAt(i + 1) == '\n') ? 2 : 1;
+            } else if (c == '\t') {
+                int spaces = TAB_STOP - (column % TAB_STOP);
+                for (int s = 0; s < spaces; s++) out.append(' ');
+                column += spaces;
+                i++;
+            } else if (c == ESC) {
+                int end = AnsiText.sequenceEnd(text, i);
+                i = (end > i) ? end : i + 1;
+            } else if (isControl(c)) {
+                i++;
+            } else {
+                int cp = text.codePointAt(i);
+                out.appendCodePoint(cp);
+                column += DisplayWidth.of(cp);
+                i += Character.charCount(cp);
+            }
+        }
+        return out.toString();
+    }
+
+    private static int firstUnsafe(String text) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c != '\n' && isControl(c)) return i;
+        }
+        return -1;
+    }
+
+    /** Cell column of {@code pos} within its line, for tab stops in the untouched prefix. */
+    private static int columnAt(String text, int pos) {
+        int lineStart = text.lastIndexOf('\n', pos - 1) + 1;
+        return DisplayWidth.of(text.subSequence(lineStart, pos));
+    }
+
+    /** C0 controls, DEL, and C1 controls (which include the single-byte CSI). */
+    private static boolean isControl(char c) {
+        return c < 0x20 || (c >= 0x7F && c < 0xA0);
+    }
+}
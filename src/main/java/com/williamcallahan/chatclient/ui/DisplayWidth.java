@@ -0,0 +1,149 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Terminal cell width of Unicode code points: 0 for combining, format and control
+ * characters, 2 for East Asian Wide/Fullwidth and emoji presentation, 1 otherwise.
+ *
+ * <p>Widths live in a two-level table built once at class load: the high bits of a code
+ * point select a 256-entry block, and identical blocks are shared, so the whole range fits
+ * in a few dozen kilobytes. Printable ASCII skips the table entirely.
+ */
+final class DisplayWidth {
+
+    private DisplayWidth() {}
+
+    private static final int BLOCK_SHIFT = 8;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int UNASSIGNED_START = 0x40000;
+    private static final int UNASSIGNED_END = 0xE0000;
+
+    /**
+     * East Asian Width W/F ranges plus default-emoji-presentation symbols (inclusive pairs).
+     * Derived from Unicode 15.1 EastAsianWidth.txt and emoji-data.txt.
+     */
+    private static final int[] WIDE_RANGES = {
+        0x1100, 0x115F, 0x231A, 0x231B, 0x2329, 0x232A, 0x23E9, 0x23EC,
+        0x23F0, 0x23F0, 0x23F3, 0x23F3, 0x25FD, 0x25FE, 0x2614, 0x2615,
+        0x2648, 0x2653, 0x267F, 0x267F, 0x2693, 0x2693, 0x26A1, 0x26A1,
+        0x26AA, 0x26AB, 0x26BD, 0x26BE, 0x26C4, 0x26C5, 0x26CE, 0x26CE,
+        0x26D4, 0x26D4, 0x26EA, 0x26EA, 0x26F2, 0x26F3, 0x26F5, 0x26F5,
+        0x26FA, 0x26FA, 0x26FD, 0x26FD, 0x2705, 0x2705, 0x270A, 0x270B,
+        0x2728, 0x2728, 0x274C, 0x274C, 0x274E, 0x274E, 0x2753, 0x2755,
+        0x2757, 0x2757, 0x2795, 0x2797, 0x27B0, 0x27B0, 0x27BF, 0x27BF,
+        0x2B1B, 0x2B1C, 0x2B50, 0x2B50, 0x2B55, 0x2B55, 0x2E80, 0x303E,
+        0x3041, 0x33FF, 0x3400, 0x4DBF, 0x4E00, 0x9FFF, 0xA000, 0xA4CF,
+        0xA960, 0xA97F, 0xAC00, 0xD7A3, 0xF900, 0xFAFF, 0xFE10, 0xFE19,
+        0xFE30, 0xFE6F, 0xFF00, 0xFF60, 0xFFE0, 0xFFE6, 0x16FE0, 0x16FE4,
+        0x16FF0, 0x16FF1, 0x17000, 0x187F7, 0x18800, 0x18CD5, 0x18D00, 0x18D08,
+        0x1AFF0, 0x1AFFE, 0x1B000, 0x1B122, 0x1B132, 0x1B132, 0x1B150, 0x1B152,
+        0x1B155, 0x1B155, 0x1B164, 0x1B167, 0x1B170, 0x1B2FB, 0x1F004, 0x1F004,
+        0x1F0CF, 0x1F0CF, 0x1F18E, 0x1F18E, 0x1F191, 0x1F19A, 0x1F200, 0x1F202,
+        0x1F210, 0x1F23B, 0x1F240, 0x1F248, 0x1F250, 0x1F251, 0x1F260, 0x1F265,
+        0x1F300, 0x1F320, 0x1F32D, 0x1F335, 0x1F337, 0x1F37C, 0x1F37E, 0x1F393,
+        0x1F3A0, 0x1F3CA, 0x1F3CF, 0x1F3D3, 0x1F3E0, 0x1F3F0, 0x1F3F4, 0x1F3F4,
+        0x1F3F8, 0x1F43E, 0x1F440, 0x1F440, 0x1F442, 0x1F4FC, 0x1F4FF, 0x1F53D,
+        0x1F54B, 0x1F54E, 0x1F550, 0x1F567, 0x1F57A, 0x1F57A, 0x1F595, 0x1F596,
+        0x1F5A4, 0x1F5A4, 0x1F5FB, 0x1F64F, 0x1F680, 0x1F6C5, 0x1F6CC, 0x1F6CC,
+        0x1F6D0, 0x1F6D2, 0x1F6D5, 0x1F6D7, 0x1F6DC, 0x1F6DF, 0x1F6EB, 0x1F6EC,
+        0x1F6F4, 0x1F6FC, 0x1F7E0, 0x1F7EB, 0x1F7F0, 0x1F7F0, 0x1F90C, 0x1F93A,
+        0x1F93C, 0x1F945, 0x1F947, 0x1F9FF, 0x1FA70, 0x1FA7C, 0x1FA80, 0x1FA89,
+        0x1FA8F, 0x1FAC6, 0x1FACE, 0x1FADC, 0x1FADF, 0x1FAE9, 0x1FAF0, 0x1FAF8,
+        0x20000, 0x2FFFD, 0x30000, 0x3FFFD,
+    };
+
+    /** Block index per 256-code-point page. */
+    private static final char[] PAGES;
+    /** Concatenated shared blocks of per-code-point widths. */
+    private static final byte[] BLOCKS;
+
+    static {
+        int pageCount = (Character.MAX_CODE_POINT + 1) >> BLOCK_SHIFT;
+        char[] pages = new char[pageCount];
+        Map<String, Integer> blockIds = new HashMap<>();
+        byte[] blocks = new byte[BLOCK_SIZE * 16];
+        int blockCount = 0;
+
+        byte[] block = new byte[BLOCK_SIZE];
+        int wideIndex = 0;
+        for (int page = 0; page < pageCount; page++) {
+            int base = page << BLOCK_SHIFT;
+            if (base >= UNASSIGNED_START && base < UNASSIGNED_END) {
+                // Planes 4-13 hold no assigned characters; reuse the page before them.
+                pages[page] = pages[page - 1];
+                continue;
+            }
+            for (int i = 0; i < BLOCK_SIZE; i++) {
+                int cp = base + i;
+                while (
+                    wideIndex < WIDE_RANGES.length &&
+                    WIDE_RANGES[wideIndex + 1] < cp
+                ) {
+                    wideIndex += 2;
+                }
+                boolean wide =
+                    wideIndex < WIDE_RANGES.length &&
+                    WIDE_RANGES[wideIndex] <= cp;
+                block[i] = (byte) (wide ? 2 : computeNarrowWidth(cp));
+            }
+
+            String key = new String(block, StandardCharsets.ISO_8859_1);
+            Integer id = blockIds.get(key);
+            if (id == null) {
+                id = blockCount++;
+                blockIds.put(key, id);
+                if (blockCount * BLOCK_SIZE > blocks.length) {
+                    blocks = Arrays.copyOf(blocks, blocks.length * 2);
+                }
+                System.arraycopy(block, 0, blocks, id * BLOCK_SIZE, BLOCK_SIZE);
+            }
+            pages[page] = (char) (int) id;
+        }
+
+        PAGES = pages;
+        BLOCKS = Arrays.copyOf(blocks, blockCount * BLOCK_SIZE);
+    }
+
+    /** Returns the number of terminal cells occupied by a code point (0, 1, or 2). */
+    static int of(int codePoint) {
+        if (codePoint >= 0x20 && codePoint < 0x7F) return 1;
+        if (codePoint < 0 || codePoint > Character.MAX_CODE_POINT) return 0;
+        return BLOCKS[(PAGES[codePoint >> BLOCK_SHIFT] << BLOCK_SHIFT) |
+            (codePoint & (BLOCK_SIZE - 1))];
+    }
+
+    /** Returns the cell width of plain (escape-free) text. */
+    static int of(CharSequence text) {
+        if (text == null) return 0;
+        int n = text.length();
+        int width = 0;
+        for (int i = 0; i < n; ) {
+            char c = text.charAt(i);
+            if (c >= 0x20 && c < 0x7F) {
+                width++;
+                i++;
+                continue;
+            }
+            int cp = Character.codePointAt(text, i);
+            width += of(cp);
+            i += Character.charCount(cp);
+        }
+        return width;
+    }
+
+    private static int computeNarrowWidth(int cp) {
+        if (cp < 0x20 || (cp >= 0x7F && cp < 0xA0)) return 0;
+        if (cp == 0x00AD) return 1; // soft hyphen renders as a visible hyphen in terminals
+        if (cp >= 0x1160 && cp <= 0x11FF) return 0; // Hangul medial vowels and final consonants
+        return switch (Character.getType(cp)) {
+            case Character.NON_SPACING_MARK,
+                Character.ENCLOSING_MARK,
+                Character.FORMAT -> 0;
+            default -> 1;
+        };
+    }
+}
@@ -0,0 +1,84 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The last fully composed chat frame, kept so frames where only the status row changed
+ * (spinner ticks while waiting) can patch that one row instead of re-rendering history,
+ * composer, overlays and the border frame.
+ *
+ * <p>The cache is only reusable while the screen size and the conversation's message list
+ * are unchanged; the caller decides whether anything else on screen may have changed.
+ */
+final class FrameCache {
+
+    private List<String> framedLines = List.of();
+    private String topBorder = "";
+    private int statusRowIndex = -1;
+    private int width = -1;
+    private int height = -1;
+    private int messageCount = -1;
+    private String lastMessageId;
+
+    /**
+     * Stores a freshly rendered frame (framed content without the top border).
+     * A negative status row index marks the row as off-screen, which disables patching.
+     */
+    void store(
+        String topBorder,
+        String framedContent,
+        int statusRowIndex,
+        int width,
+        int height,
+        int messageCount,
+        String lastMessageId
+    ) {
+        this.topBorder = topBorder;
+        this.framedLines = new ArrayList<>(
+            Arrays.asList(framedContent.split("\n", -1))
+        );
+        this.statusRowIndex = statusRowIndex;
+        this.width = width;
+        this.height = height;
+        this.messageCount = messageCount;
+        this.lastMessageId = lastMessageId;
+    }
+
+    /** @return true if the cached frame still matches the screen and conversation. */
+    boolean reusable(
+        int width,
+        int height,
+        int messageCount,
+        String lastMessageId
+    ) {
+        return (
+            width == this.width &&
+            height == this.height &&
+            messageCount == this.messageCount &&
+            Objects.equals(lastMessageId, this.lastMessageId) &&
+            statusRowIndex >= 0 &&
+            statusRowIndex < framedLines.size()
+        );
+    }
+
+    /** Replaces the status row (already framed) and, if given, the top border; returns the frame. */
+    String patch(String framedStatusRow, String topBorder) {
+        return patch(null, framedStatusRow, topBorder);
+    }
+
+    /**
+     * Like {@link #patch(String, String)}, also replacing the row just above the status row
+     * (the perf HUD) when {@code framedRowAbove} is given.
+     */
+    String patch(String framedRowAbove, String framedStatusRow, String topBorder) {
+        if (framedRowAbove != null && statusRowIndex > 0) {
+            framedLines.set(statusRowIndex - 1, framedRowAbove);
+        }
+        framedLines.set(statusRowIndex, framedStatusRow);
+        if (topBorder != null) this.topBorder = topBorder;
+        return this.topBorder + "\n" + String.join("\n", framedLines);
+    }
+}
@@ -0,0 +1,129 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram in the style of HdrHistogram: values below 32 are counted exactly,
+ * larger ones land in one of 32 linear sub-buckets per power of two, so any recorded value
+ * is reported within about 3% using a fixed ~15 KB table and no allocation per sample.
+ */
+final class FrameHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * SUB_COUNT;
+    private static final double[] DUMP_PERCENTILES = {
+        0, 50, 75, 90, 95, 99, 99.9, 99.99, 100,
+    };
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount = 0;
+    private long max = 0;
+
+    /** Records a non-negative value; negative values are clamped to zero. */
+    void record(long value) {
+        long v = Math.max(0, value);
+        counts[indexOf(v)]++;
+        totalCount++;
+        if (v > max) max = v;
+    }
+
+    /** Adds all counts from another histogram. */
+    void add(FrameHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) counts[i] += other.counts[i];
+        totalCount += other.totalCount;
+        max = Math.max(max, other.max);
+    }
+
+    void reset() {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        max = 0;
+    }
+
+    long count() {
+        return totalCount;
+    }
+
+    long max() {
+        return max;
+    }
+
+    /** Returns the value at a percentile (0-100), reported as its bucket's upper bound. */
+    long percentile(double percentile) {
+        if (totalCount == 0) return 0;
+        double p = Math.max(0, Math.min(100, percentile));
+        long rank = Math.max(1, (long) Math.ceil(p / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highestEquivalent(i));
+        }
+        return max;
+    }
+
+    /**
+     * Writes a percentile table in the spirit of HdrHistogram's {@code .hgrm} output,
+     * with values divided by {@code unitScale} (e.g. 1000 for nanoseconds to microseconds).
+     */
+    void writePercentiles(Appendable out, String title, double unitScale)
+        throws IOException {
+        out.append("# ").append(title).append('\n');
+        out.append(
+            String.format(
+                "%12s %14s %10s %14s%n",
+                "Value",
+                "Percentile",
+                "TotalCount",
+                "1/(1-Percentile)"
+            )
+        );
+        for (double p : DUMP_PERCENTILES) {
+            long value = percentile(p);
+            long below = countAtOrBelow(value);
+            String inverse = (p >= 100)
+                ? "Infinity"
+                : String.format("%.2f", 1.0 / (1.0 - p / 100.0));
+            out.append(
+                String.format(
+                    "%12.3f %14.6f %10d %14s%n",
+                    value / unitScale,
+                    p / 100.0,
+                    below,
+                    inverse
+                )
+            );
+        }
+        out.append(
+            String.format(
+                "#[Max = %.3f, Total count = %d]%n",
+                max / unitScale,
+                totalCount
+            )
+        );
+    }
+
+    private long countAtOrBelow(long value) {
+        long sum = 0;
+        int last = indexOf(value);
+        for (int i = 0; i <= last; i++) sum += counts[i];
+        return sum;
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        int sub = (int) (value >>> shift) - SUB_COUNT;
+        return SUB_COUNT + shift * SUB_COUNT + sub;
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index - SUB_COUNT) / SUB_COUNT;
+        int sub = (index - SUB_COUNT) % SUB_COUNT;
+        long lowest = (long) (SUB_COUNT + sub) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,201 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Line-addressable model of the rendered chat history.
+ * Keeps each message's rendered lines as-is plus a {@link LineCountTree} of line counts, so
+ * the viewport can map between global lines and (message, offset) positions in O(log n)
+ * and slice visible lines without joining and re-splitting the whole transcript.
+ * Plain-text lines are derived on demand for mouse selection and copy.
+ */
+final class HistoryIndex {
+
+    /** A line position expressed relative to the message that contains it. */
+    record Position(int slot, String messageId, int lineOffset) {}
+
+    private final List<String> messageIds = new ArrayList<>();
+    private final List<List<String>> messageLines = new ArrayList<>();
+    private final Map<String, Integer> slotsById = new HashMap<>();
+    private final LineCountTree lineCounts = new LineCountTree();
+    private int trailingBlankLines = 0;
+
+    private final List<String> plainView = new AbstractList<>() {
+        @Override
+        public String get(int index) {
+            return toPlain(line(index));
+        }
+
+        @Override
+        public int size() {
+            return totalLines();
+        }
+    };
+
+    /** Removes all messages from the index. */
+    void clear() {
+        messageIds.clear();
+        messageLines.clear();
+        slotsById.clear();
+        lineCounts.clear();
+        trailingBlankLines = 0;
+    }
+
+    /** @return number of indexed messages. */
+    int messageCount() {
+        return messageIds.size();
+    }
+
+    /** Appends a message's rendered lines at the end of the history. */
+    void append(String messageId, List<String> lines) {
+        int slot = messageIds.size();
+        messageIds.add(messageId);
+        messageLines.add(lines);
+        if (messageId != null) slotsById.put(messageId, slot);
+        lineCounts.append(lines.size());
+        trailingBlankLines = countTrailingBlankLines(lines);
+    }
+
+    /** Removes the most recently appended message. */
+    void removeLast() {
+        int slot = messageIds.size() - 1;
+        String id = messageIds.remove(slot);
+        messageLines.remove(slot);
+        if (id != null && Integer.valueOf(slot).equals(slotsById.get(id))) {
+            slotsById.remove(id);
+        }
+        lineCounts.removeLast();
+        trailingBlankLines = messageLines.isEmpty()
+            ? 0
+            : countTrailingBlankLines(messageLines.getLast());
+    }
+
+    /**
+     * Replaces the lines of an already indexed message, e.g. once a placeholder has been
+     * wrapped for real. Only that message's count changes; later positions shift in O(log n).
+     */
+    void replace(int slot, List<String> lines) {
+        messageLines.set(slot, lines);
+        lineCounts.set(slot, lines.size());
+        if (slot == messageIds.size() - 1) {
+            trailingBlankLines = countTrailingBlankLines(lines);
+        }
+    }
+
+    /** @return the message id stored at a slot. */
+    String messageId(int slot) {
+        return messageIds.get(slot);
+    }
+
+    /** @return the slot of an indexed message, or -1 if it is not indexed. */
+    int slotOf(String messageId) {
+        Integer slot = (messageId == null) ? null : slotsById.get(messageId);
+        return (slot == null) ? -1 : slot;
+    }
+
+    /** @return the number of lines currently held for the message at a slot. */
+    int lineCount(int slot) {
+        return lineCounts.count(slot);
+    }
+
+    /**
+     * Total number of displayable lines.
+     * Trailing blank lines of the last message are excluded so the newest message sits on
+     * the bottom row, matching how a joined transcript would be trimmed.
+     */
+    int totalLines() {
+        return lineCounts.total() - trailingBlankLines;
+    }
+
+    /** Returns the styled line at a global line index. */
+    String line(int index) {
+        if (index < 0 || index >= totalLines()) {
+            throw new IndexOutOfBoundsException(
+                "line " + index + " of " + totalLines()
+            );
+        }
+        int slot = lineCounts.slotForLine(index);
+        return messageLines.get(slot).get(index - lineCounts.startOf(slot));
+    }
+
+    /** Maps a global line to the message containing it and the offset within that message. */
+    Position locate(int index) {
+        if (index < 0 || index >= totalLines()) {
+            throw new IndexOutOfBoundsException(
+                "line " + index + " of " + totalLines()
+            );
+        }
+        int slot = lineCounts.slotForLine(index);
+        return new Position(
+            slot,
+            messageIds.get(slot),
+            index - lineCounts.startOf(slot)
+        );
+    }
+
+    /**
+     * Maps a message-relative position back to a global line, clamping the offset to the
+     * message's current line count.
+     *
+     * @return the global line, or -1 if the message is not indexed
+     */
+    int lineOf(String messageId, int lineOffset) {
+        int slot = slotOf(messageId);
+        if (slot < 0) return -1;
+        int count = lineCounts.count(slot);
+        int offset = Math.max(0, Math.min(lineOffset, Math.max(0, count - 1)));
+        return Math.min(lineCounts.startOf(slot) + offset, Math.max(0, totalLines() - 1));
+    }
+
+    /** Returns styled lines in {@code [fromInclusive, toExclusive)}, walking messages in order. */
+    List<String> slice(int fromInclusive, int toExclusive) {
+        int from = Math.max(0, fromInclusive);
+        int to = Math.min(totalLines(), toExclusive);
+        if (from >= to) return List.of();
+
+        List<String> out = new ArrayList<>(to - from);
+        int slot = lineCounts.slotForLine(from);
+        int offset = from - lineCounts.startOf(slot);
+        while (out.size() < to - from) {
+            List<String> lines = messageLines.get(slot);
+            for (
+                int i = offset;
+                i < lines.size() && out.size() < to - from;
+                i++
+            ) {
+                out.add(lines.get(i));
+            }
+            slot++;
+            offset = 0;
+        }
+        return out;
+    }
+
+    /**
+     * Live plain-text view over all lines; each element is stripped when accessed,
+     * so nothing is materialized until a selection or copy reads it.
+     */
+    List<String> plainLines() {
+        return plainView;
+    }
+
+    /** Strips ANSI styling and trailing whitespace from a rendered line. */
+    static String toPlain(String styled) {
+        String s = TuiTheme.stripAnsi(styled);
+        int i = s.length() - 1;
+        while (i >= 0 && Character.isWhitespace(s.charAt(i))) i--;
+        return s.substring(0, i + 1);
+    }
+
+    private static int countTrailingBlankLines(List<String> lines) {
+        int count = 0;
+        for (int i = lines.size() - 1; i >= 0 && lines.get(i).isEmpty(); i--) {
+            count++;
+        }
+        return count;
+    }
+}
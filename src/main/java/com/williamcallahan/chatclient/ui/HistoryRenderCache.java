@@ -0,0 +1,99 @@
+package com.williamcallahan.chatclient.ui;
+
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the wrapped, styled lines of each history message between frames.
+ * Entries are keyed by message id; the line cache is dropped when the wrap width
+ * or the tool-message visibility flag changes, so appends only render the new message.
+ * Sanitized message text is kept separately and survives those resets, so each message's
+ * content is scanned once when it enters the history rather than on every re-wrap.
+ */
+final class HistoryRenderCache {
+
+    /** Renders one message's sanitized text into its display lines (label, wrapped body, trailing spacer). */
+    @FunctionalInterface
+    interface MessageRenderer {
+        List<String> render(ChatMessage message, String displayText, int wrapWidth);
+    }
+
+    /** Sanitized content plus the raw content it came from, to notice replaced messages. */
+    private record DisplayText(String source, String text) {}
+
+    private final MessageRenderer renderer;
+    private final Map<String, List<String>> linesByMessageId = new HashMap<>();
+    private final Map<String, DisplayText> textByMessageId = new HashMap<>();
+    private int wrapWidth = -1;
+    private boolean showToolMessages;
+    private long sanitizeNanos = 0;
+
+    HistoryRenderCache(MessageRenderer renderer) {
+        this.renderer = renderer;
+    }
+
+    /** Returns the rendered lines for a message, rendering and caching on first use. */
+    List<String> lines(ChatMessage message, int wrapWidth, boolean showToolMessages) {
+        resetIfChanged(wrapWidth, showToolMessages);
+        if (message.id() == null) {
+            return renderer.render(message, displayText(message), wrapWidth);
+        }
+        List<String> cached = linesByMessageId.get(message.id());
+        if (cached == null) {
+            cached = List.copyOf(
+                renderer.render(message, displayText(message), wrapWidth)
+            );
+            linesByMessageId.put(message.id(), cached);
+        }
+        return cached;
+    }
+
+    /** Returns the cached lines for a message at this width without rendering, or null. */
+    List<String> cached(ChatMessage message, int wrapWidth, boolean showToolMessages) {
+        resetIfChanged(wrapWidth, showToolMessages);
+        return (message.id() == null) ? null : linesByMessageId.get(message.id());
+    }
+
+    /**
+     * Stores lines rendered elsewhere (e.g. by a background re-wrap).
+     * Ignored if the cache has since moved to a different width.
+     */
+    void put(String messageId, int wrapWidth, List<String> lines) {
+        if (messageId == null || wrapWidth != this.wrapWidth) return;
+        linesByMessageId.put(messageId, List.copyOf(lines));
+    }
+
+    /** Returns the sanitized content of a message, sanitizing once per distinct content. */
+    String displayText(ChatMessage message) {
+        String source = (message.content() == null) ? "" : message.content();
+        if (message.id() == null) return DisplaySanitizer.sanitize(source);
+        DisplayText cached = textByMessageId.get(message.id());
+        if (cached == null || cached.source() != source) {
+            long start = System.nanoTime();
+            cached = new DisplayText(source, DisplaySanitizer.sanitize(source));
+            sanitizeNanos += System.nanoTime() - start;
+            textByMessageId.put(message.id(), cached);
+        }
+        return cached.text();
+    }
+
+    /** Returns time spent sanitizing since the last call, for the perf HUD. */
+    long drainSanitizeNanos() {
+        long nanos = sanitizeNanos;
+        sanitizeNanos = 0;
+        return nanos;
+    }
+
+    private void resetIfChanged(int wrapWidth, boolean showToolMessages) {
+        if (
+            wrapWidth != this.wrapWidth ||
+            showToolMessages != this.showToolMessages
+        ) {
+            linesByMessageId.clear();
+            this.wrapWidth = wrapWidth;
+            this.showToolMessages = showToolMessages;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.williamcallahan.chatclient.ui;
+
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Re-wraps history messages for a new width on a virtual thread.
+ *
+ * <p>The UI thread indexes placeholders and wraps the visible window itself, then hands the
+ * remaining messages here in priority order. Results come back in small batches through
+ * {@link #awaitBatch()}, which a tui4j command blocks on, so the screen can fill them in
+ * between frames. A newer resize {@link #cancel cancels} the job; its generation number lets
+ * the screen drop batches that were already in flight.
+ */
+final class HistoryRewrap {
+
+    private static final int BATCH_SIZE = 32;
+
+    /** A message to wrap, with its sanitized text captured on the UI thread. */
+    record Pending(int slot, ChatMessage message, String displayText) {}
+
+    /** Wrapped lines for one history slot. */
+    record Result(int slot, String messageId, List<String> lines) {}
+
+    /** A group of results; {@code done} marks the last batch of the job. */
+    record Batch(long generation, int wrapWidth, List<Result> results, boolean done) {}
+
+    private final long generation;
+    private final int wrapWidth;
+    private final List<Pending> pending;
+    private final HistoryRenderCache.MessageRenderer renderer;
+    private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+    private volatile boolean cancelled = false;
+
+    HistoryRewrap(
+        long generation,
+        int wrapWidth,
+        List<Pending> pending,
+        HistoryRenderCache.MessageRenderer renderer
+    ) {
+        this.generation = generation;
+        this.wrapWidth = wrapWidth;
+        this.pending = List.copyOf(pending);
+        this.renderer = renderer;
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    /** Starts wrapping on a new virtual thread. */
+    void start() {
+        Thread.ofVirtual().name("history-rewrap-" + generation).start(this::run);
+    }
+
+    /** Stops the job after the message in progress; a final empty batch is still delivered. */
+    void cancel() {
+        cancelled = true;
+    }
+
+    /** Blocks until the next batch is ready. Interruption yields an empty final batch. */
+    Batch awaitBatch() {
+        try {
+            return batches.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Batch(generation, wrapWidth, List.of(), true);
+        }
+    }
+
+    private void run() {
+        try {
+            List<Result> results = new ArrayList<>(BATCH_SIZE);
+            for (Pending p : pending) {
+                if (cancelled) break;
+                results.add(
+                    new Result(
+                        p.slot(),
+                        p.message().id(),
+                        List.copyOf(
+                            renderer.render(p.message(), p.displayText(), wrapWidth)
+                        )
+                    )
+                );
+                if (results.size() == BATCH_SIZE) {
+                    batches.add(new Batch(generation, wrapWidth, results, false));
+                    results = new ArrayList<>(BATCH_SIZE);
+                }
+            }
+            batches.add(
+                new Batch(
+                    generation,
+                    wrapWidth,
+                    cancelled ? List.of() : results,
+                    true
+                )
+            );
+        } catch (RuntimeException e) {
+            // The screen falls back to a synchronous wrap for anything left as a placeholder.
+            batches.add(new Batch(generation, wrapWidth, List.of(), true));
+        }
+    }
+}
@@ -2,51 +2,108 @@ package com.williamcallahan.chatclient.ui;
 
 /**
  * Manages the scroll state and viewport window calculation for chat history.
- * Supports bottom-anchored scrolling where an offset of 0 represents the most recent messages.
+ * Follows the newest messages by default. Once scrolled away, the top visible line is
+ * anchored as (message id, line offset) so the view keeps its place across resizes and
+ * new appends, with no cap on transcript length.
  */
 final class HistoryViewport {
+    private boolean following = true;
+    private String anchorMessageId = null;
+    private int anchorLineOffset = 0;
+    private int lastTopLine = 0;
+    private int pendingScrollLines = 0;
     private int scrollOffsetLines = 0;
 
-    /** @return current number of lines scrolled up from the bottom. */
+    /** @return number of lines below the window as of the last {@link #window} call. */
     int scrollOffsetLines() {
         return scrollOffsetLines;
     }
 
+    /** @return true while the viewport tracks the newest lines. */
+    boolean following() {
+        return following;
+    }
+
+    /** @return the message anchored at the top of the window, or null if none. */
+    String anchorMessageId() {
+        return anchorMessageId;
+    }
+
+    /** @return the anchored line offset within {@link #anchorMessageId()}. */
+    int anchorLineOffset() {
+        return anchorLineOffset;
+    }
+
+    /** @return the top line resolved by the last {@link #window} call. */
+    int lastTopLine() {
+        return lastTopLine;
+    }
+
     /** Scrolls the viewport up by the specified number of lines. */
     void scrollUp(int lines) {
         if (lines <= 0) return;
-        scrollOffsetLines = Math.min(scrollOffsetLines + lines, 50_000);
+        pendingScrollLines += lines;
     }
 
     /** Scrolls the viewport down by the specified number of lines. */
     void scrollDown(int lines) {
         if (lines <= 0) return;
-        scrollOffsetLines = Math.max(0, scrollOffsetLines - lines);
+        pendingScrollLines -= lines;
     }
 
-    /** Resets the scroll offset to 0, following the most recent messages. */
+    /** Follows the most recent messages. */
     void follow() {
-        scrollOffsetLines = 0;
+        following = true;
+        anchorMessageId = null;
+        anchorLineOffset = 0;
+        pendingScrollLines = 0;
     }
 
     /** Scrolls to the very beginning of the history. */
     void top() {
-        scrollOffsetLines = 50_000;
+        following = false;
+        anchorMessageId = null;
+        anchorLineOffset = 0;
+        lastTopLine = 0;
+        pendingScrollLines = 0;
     }
 
     /**
-     * Calculates the current visible window of lines based on total lines and viewport height.
+     * Resolves the anchor and any pending scroll against the index and returns the visible
+     * window. Re-anchors to the message now at the top, so later resizes and appends keep it.
      */
-    Window window(int totalLines, int maxLines) {
-        if (totalLines < 0) totalLines = 0;
+    Window window(HistoryIndex index, int maxLines) {
+        int totalLines = Math.max(0, index.totalLines());
         if (maxLines < 0) maxLines = 0;
+        int maxTop = Math.max(0, totalLines - maxLines);
+
+        int top;
+        if (following) {
+            top = maxTop;
+        } else if (anchorMessageId == null) {
+            top = lastTopLine;
+        } else {
+            int anchored = index.lineOf(anchorMessageId, anchorLineOffset);
+            top = (anchored >= 0) ? anchored : lastTopLine;
+        }
+        top -= pendingScrollLines;
+        pendingScrollLines = 0;
+        top = Math.max(0, Math.min(top, maxTop));
 
-        int maxScrollOffset = Math.max(0, totalLines - maxLines);
-        scrollOffsetLines = Math.max(0, Math.min(scrollOffsetLines, maxScrollOffset));
+        following = (top == maxTop);
+        if (following || totalLines == 0) {
+            anchorMessageId = null;
+            anchorLineOffset = 0;
+        } else {
+            HistoryIndex.Position anchor = index.locate(top);
+            anchorMessageId = anchor.messageId();
+            anchorLineOffset = anchor.lineOffset();
+        }
+        lastTopLine = top;
 
-        int endExclusive = Math.max(0, totalLines - scrollOffsetLines);
-        int startInclusive = Math.max(0, endExclusive - maxLines);
-        return new Window(startInclusive, endExclusive);
+        int endExclusive = Math.min(totalLines, top + maxLines);
+        scrollOffsetLines = totalLines - endExclusive;
+        return new Window(top, endExclusive);
     }
 
     /** Represents a range of lines visible in the viewport. */
@@ -0,0 +1,117 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree over per-message line counts.
+ * Supports O(log n) append, point update, prefix sums, and line-to-message lookup, so
+ * history positions can be mapped without walking every message.
+ */
+final class LineCountTree {
+
+    /** 1-based Fenwick array; tree[0] is unused. */
+    private int[] tree = new int[65];
+    private int[] counts = new int[64];
+    private int size = 0;
+    private int total = 0;
+
+    /** @return number of entries. */
+    int size() {
+        return size;
+    }
+
+    /** @return sum of all line counts. */
+    int total() {
+        return total;
+    }
+
+    /** @return line count of a single entry. */
+    int count(int slot) {
+        checkSlot(slot);
+        return counts[slot];
+    }
+
+    void clear() {
+        Arrays.fill(tree, 0, size + 1, 0);
+        size = 0;
+        total = 0;
+    }
+
+    /** Appends an entry with the given line count. */
+    void append(int lineCount) {
+        if (size == counts.length) {
+            counts = Arrays.copyOf(counts, size * 2);
+            tree = Arrays.copyOf(tree, size * 2 + 1);
+        }
+        counts[size] = lineCount;
+        size++;
+
+        // Node i covers (i - lowbit(i), i]; build it from its already-present children.
+        int i = size;
+        int node = lineCount;
+        int lowbit = i & -i;
+        for (int step = 1; step < lowbit; step <<= 1) {
+            node += tree[i - step];
+        }
+        tree[i] = node;
+        total += lineCount;
+    }
+
+    /** Removes the last entry. */
+    void removeLast() {
+        checkSlot(size - 1);
+        total -= counts[size - 1];
+        tree[size] = 0;
+        size--;
+    }
+
+    /** Replaces the line count of an existing entry. */
+    void set(int slot, int lineCount) {
+        checkSlot(slot);
+        int delta = lineCount - counts[slot];
+        if (delta == 0) return;
+        counts[slot] = lineCount;
+        total += delta;
+        for (int i = slot + 1; i <= size; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /** @return sum of the line counts of entries {@code [0, slot)}, i.e. the first line of {@code slot}. */
+    int startOf(int slot) {
+        if (slot < 0 || slot > size) {
+            throw new IndexOutOfBoundsException("slot " + slot + " of " + size);
+        }
+        int sum = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the entry containing a global line, i.e. the largest slot whose start is
+     * {@code <= line}. Entries with zero lines are skipped.
+     */
+    int slotForLine(int line) {
+        if (line < 0 || line >= total) {
+            throw new IndexOutOfBoundsException("line " + line + " of " + total);
+        }
+        int pos = 0;
+        int remaining = line;
+        for (int step = Integer.highestOneBit(size); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next <= size && tree[next] <= remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    private void checkSlot(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IndexOutOfBoundsException("slot " + slot + " of " + size);
+        }
+    }
+}
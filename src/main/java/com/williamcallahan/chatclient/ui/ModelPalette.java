@@ -33,6 +33,24 @@ final class ModelPalette {
         this.open = true;
     }
 
+    /** Swaps in a refreshed model list, keeping the filter and the highlighted model. */
+    void replaceModels(List<String> modelIds) {
+        List<ModelChoice> matches = filtered();
+        String selected = matches.isEmpty()
+            ? null
+            : matches.get(Math.min(selectedIndex, matches.size() - 1)).id();
+        this.allChoices = modelIds.stream().map(ModelChoice::new).toList();
+        List<ModelChoice> refreshed = filtered();
+        int index = 0;
+        for (int i = 0; i < refreshed.size(); i++) {
+            if (refreshed.get(i).id().equals(selected)) {
+                index = i;
+                break;
+            }
+        }
+        this.selectedIndex = index;
+    }
+
     void close() {
         open = false;
         selectedIndex = 0;
@@ -59,6 +59,7 @@ final class MouseSelectionController {
 
     /**
      * Updates the mapping between screen coordinates and history lines.
+     * {@code allPlain} may be a lazy view; lines are only read when a selection is copied.
      */
     void updateHistoryMapping(int startRow, int startCol, int windowStartIndex,
                               List<String> visiblePlain, List<String> allPlain) {
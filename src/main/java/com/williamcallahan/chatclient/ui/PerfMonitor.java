@@ -0,0 +1,229 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Opt-in render performance HUD for the chat screen (BRIEF_PERF=1 or /perf).
+ *
+ * <p>Measures each {@code view()} call: wall time, time spent wrapping, sanitizing and
+ * applying overlays, visible vs. total history lines, and bytes allocated by the UI thread
+ * (via {@code com.sun.management.ThreadMXBean} where the JVM supports it). Frame times and
+ * allocations go into rolling {@link FrameHistogram}s covering the last one to two minutes,
+ * which {@link #dump} writes out for comparing builds. Does nothing while disabled.
+ */
+final class PerfMonitor {
+
+    /** Timed parts of a frame, reported separately in the HUD. */
+    enum Section {
+        WRAP,
+        SANITIZE,
+        OVERLAY,
+    }
+
+    private static final long ROLL_INTERVAL_NANOS = 60_000_000_000L;
+    private static final long NOTICE_MS = 10_000;
+    private static final DateTimeFormatter DUMP_NAME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private boolean enabled;
+    private FrameHistogram currentFrames = new FrameHistogram();
+    private FrameHistogram previousFrames = new FrameHistogram();
+    private FrameHistogram currentAlloc = new FrameHistogram();
+    private FrameHistogram previousAlloc = new FrameHistogram();
+    // Merged window, reused so the HUD allocates no histogram inside the frame it measures
+    private final FrameHistogram window = new FrameHistogram();
+    private long intervalStart = System.nanoTime();
+
+    private long frameStart;
+    private long frameAllocStart;
+    private final long[] sectionNanos = new long[Section.values().length];
+
+    // Last completed frame, shown by the HUD
+    private long lastFrameNanos;
+    private long lastAllocBytes = -1;
+    private final long[] lastSectionNanos = new long[Section.values().length];
+    private int visibleLines;
+    private int totalLines;
+    private long frames;
+    private String notice;
+    private long noticeUntilMs;
+
+    PerfMonitor(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    boolean enabled() {
+        return enabled;
+    }
+
+    /** Turns the HUD on or off; histograms restart when it is turned on. */
+    void toggle() {
+        enabled = !enabled;
+        if (enabled) reset();
+    }
+
+    /** Marks the start of a {@code view()} call. */
+    void beginFrame() {
+        if (!enabled) return;
+        Arrays.fill(sectionNanos, 0);
+        frameAllocStart = allocatedBytes();
+        frameStart = System.nanoTime();
+    }
+
+    /** Adds time spent in a section of the current frame. */
+    void addSection(Section section, long nanos) {
+        if (!enabled) return;
+        sectionNanos[section.ordinal()] += nanos;
+    }
+
+    /** Records the history window size of the current frame. */
+    void lines(int visible, int total) {
+        visibleLines = visible;
+        totalLines = total;
+    }
+
+    /** Marks the end of a {@code view()} call and records it. */
+    void endFrame() {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        long allocEnd = allocatedBytes();
+        rollIfDue(now);
+
+        lastFrameNanos = now - frameStart;
+        lastAllocBytes = (frameAllocStart < 0 || allocEnd < 0)
+            ? -1
+            : allocEnd - frameAllocStart;
+        System.arraycopy(sectionNanos, 0, lastSectionNanos, 0, sectionNanos.length);
+        currentFrames.record(lastFrameNanos);
+        if (lastAllocBytes >= 0) currentAlloc.record(lastAllocBytes);
+        frames++;
+    }
+
+    /** One-line summary of the last frame and rolling percentiles. */
+    String hud() {
+        rolling(previousFrames, currentFrames);
+        StringBuilder sb = new StringBuilder(160);
+        sb
+            .append("perf view ")
+            .append(millis(lastFrameNanos))
+            .append(" p50 ")
+            .append(millis(window.percentile(50)))
+            .append(" p99 ")
+            .append(millis(window.percentile(99)))
+            .append(" · wrap ")
+            .append(millis(lastSectionNanos[Section.WRAP.ordinal()]))
+            .append(" · sanitize ")
+            .append(millis(lastSectionNanos[Section.SANITIZE.ordinal()]))
+            .append(" · overlay ")
+            .append(millis(lastSectionNanos[Section.OVERLAY.ordinal()]))
+            .append(" · lines ")
+            .append(visibleLines)
+            .append('/')
+            .append(totalLines);
+        if (lastAllocBytes >= 0) {
+            sb.append(" · alloc ").append(bytes(lastAllocBytes));
+        }
+        sb.append(" · ").append(frames).append(" frames");
+        if (notice != null && System.currentTimeMillis() < noticeUntilMs) {
+            sb.append(" · ").append(notice);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the rolling frame-time and allocation histograms to a timestamped
+     * {@code .hgrm} file in {@code dir}.
+     *
+     * @return the file written
+     */
+    Path dump(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        Path file = dir.resolve(
+            "frames-" + LocalDateTime.now().format(DUMP_NAME) + ".hgrm"
+        );
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            rolling(previousFrames, currentFrames)
+                .writePercentiles(out, "view() time (us)", 1_000.0);
+            out.write('\n');
+            rolling(previousAlloc, currentAlloc)
+                .writePercentiles(out, "allocated per frame (bytes)", 1.0);
+        }
+        notice = "saved " + file;
+        noticeUntilMs = System.currentTimeMillis() + NOTICE_MS;
+        return file;
+    }
+
+    /** Fills the shared window with both intervals' counts and returns it. */
+    private FrameHistogram rolling(FrameHistogram previous, FrameHistogram current) {
+        window.reset();
+        window.add(previous);
+        window.add(current);
+        return window;
+    }
+
+    private void rollIfDue(long now) {
+        if (now - intervalStart < ROLL_INTERVAL_NANOS) return;
+        FrameHistogram frames = previousFrames;
+        previousFrames = currentFrames;
+        currentFrames = frames;
+        currentFrames.reset();
+        FrameHistogram alloc = previousAlloc;
+        previousAlloc = currentAlloc;
+        currentAlloc = alloc;
+        currentAlloc.reset();
+        intervalStart = now;
+    }
+
+    private void reset() {
+        currentFrames.reset();
+        previousFrames.reset();
+        currentAlloc.reset();
+        previousAlloc.reset();
+        intervalStart = System.nanoTime();
+        frames = 0;
+        lastAllocBytes = -1;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 1024) return bytes + "B";
+        if (bytes < 1024 * 1024) return (bytes / 1024) + "KB";
+        return String.format("%.1fMB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = AllocationBean.INSTANCE;
+        return (bean == null) ? -1 : bean.getCurrentThreadAllocatedBytes();
+    }
+
+    /** Looked up on first use so the management classes load only when the HUD is on. */
+    private static final class AllocationBean {
+
+        static final com.sun.management.ThreadMXBean INSTANCE = lookup();
+    }
+
+    private static com.sun.management.ThreadMXBean lookup() {
+        if (
+            ManagementFactory.getThreadMXBean() instanceof
+                com.sun.management.ThreadMXBean bean &&
+            bean.isThreadAllocatedMemorySupported()
+        ) {
+            if (!bean.isThreadAllocatedMemoryEnabled()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return bean;
+        }
+        return null;
+    }
+}
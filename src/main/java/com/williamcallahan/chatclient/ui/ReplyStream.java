@@ -0,0 +1,72 @@
+package com.williamcallahan.chatclient.ui;
+
+import com.williamcallahan.chatclient.service.StreamListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Bridges a streaming reply from the request thread to the UI thread.
+ *
+ * <p>The service layer calls the {@link StreamListener} methods as SSE chunks arrive; the
+ * screen keeps one tui4j command blocked in {@link #awaitEvents()}, which returns every
+ * event queued since the last call, so a burst of tokens costs one frame rather than one
+ * per token. {@link #close()} releases the waiting command once the reply has finished.
+ */
+final class ReplyStream implements StreamListener {
+
+    /** One streamed occurrence, in arrival order. */
+    sealed interface Event {}
+
+    /** Assistant text fragment. */
+    record Text(String delta) implements Event {}
+
+    /** The model started a tool call; text streamed so far belongs to that turn. */
+    record ToolCallStarted(String name) implements Event {}
+
+    /** First token of a request arrived after {@code nanos}. */
+    record FirstToken(long nanos) implements Event {}
+
+    /** No more events will follow. */
+    record Closed() implements Event {}
+
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+
+    @Override
+    public void onFirstToken(long nanosSinceRequest) {
+        events.add(new FirstToken(nanosSinceRequest));
+    }
+
+    @Override
+    public void onText(String delta) {
+        events.add(new Text(delta));
+    }
+
+    @Override
+    public void onToolCall(String name) {
+        events.add(new ToolCallStarted(name));
+    }
+
+    /** Ends the stream; a pending {@link #awaitEvents()} returns with a {@link Closed} event. */
+    void close() {
+        events.add(new Closed());
+    }
+
+    /**
+     * Blocks for the next event, then drains whatever else is already queued.
+     * Interruption is reported as {@link Closed}.
+     */
+    List<Event> awaitEvents() {
+        List<Event> out = new ArrayList<>();
+        try {
+            out.add(events.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            out.add(new Closed());
+            return out;
+        }
+        events.drainTo(out);
+        return out;
+    }
+}
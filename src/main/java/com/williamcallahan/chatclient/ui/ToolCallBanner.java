@@ -1,5 +1,6 @@
 package com.williamcallahan.chatclient.ui;
 
+import com.williamcallahan.chatclient.service.tools.WeatherComparisonTool;
 import com.williamcallahan.chatclient.service.tools.WeatherForecastTool;
 import com.williamcallahan.tui4j.compat.lipgloss.border.StandardBorder;
 import com.williamcallahan.tui4j.compat.lipgloss.Style;
@@ -28,6 +29,7 @@ final class ToolCallBanner {
     static String displayName(String toolName) {
         if (toolName == null || toolName.isBlank()) return "tool";
         if (WeatherForecastTool.NAME.equals(toolName)) return "weather";
+        if (WeatherComparisonTool.NAME.equals(toolName)) return "weather comparison";
         String normalized = toolName;
         if (normalized.startsWith("get_")) normalized = normalized.substring(4);
         return normalized.replace('_', ' ').trim();
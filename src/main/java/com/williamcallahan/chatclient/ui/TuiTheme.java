@@ -5,18 +5,23 @@ import com.williamcallahan.tui4j.compat.lipgloss.Position;
 import com.williamcallahan.tui4j.compat.lipgloss.Style;
 import com.williamcallahan.tui4j.compat.lipgloss.color.Color;
 import com.williamcallahan.tui4j.compat.lipgloss.color.TerminalColor;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Defines the visual theme and CRT-inspired color palette for the application.
  * Provides utility methods for consistent text styling and layout.
+ *
+ * <p>Styles are built once and shared: callers must treat the returned {@link Style}s as
+ * read-only and only call {@code render}. Fragments that repeat every frame (labels,
+ * border runs, dividers, shortcut hints) can be rendered through {@link #render(Style, String)},
+ * which memoizes them per theme style.
  */
 public final class TuiTheme {
 
     private TuiTheme() {}
 
-    private static final char ANSI_ESC = '\u001B';
-    private static final String ANSI_RESET = ANSI_ESC + "[0m";
-
     public static final TerminalColor PRIMARY = Color.color("#00FF41");
     public static final TerminalColor SECONDARY = Color.color("#39FF14");
     public static final TerminalColor ACCENT = PRIMARY;
@@ -27,44 +32,129 @@ public final class TuiTheme {
     public static final TerminalColor LIGHT = PRIMARY;
     public static final TerminalColor BORDER = Color.color("#006615");
 
+    private static final Style BRAND_TITLE = Style.newStyle()
+        .foreground(PRIMARY)
+        .bold(true);
+    private static final Style SECTION_HEADER = Style.newStyle()
+        .foreground(SECONDARY)
+        .bold(true);
+    private static final Style HINT = Style.newStyle()
+        .foreground(MUTED)
+        .faint(true);
+    private static final Style SUCCESS_STYLE = Style.newStyle().foreground(SUCCESS);
+    private static final Style WARNING_STYLE = Style.newStyle().foreground(WARNING);
+    private static final Style ERROR_STYLE = Style.newStyle()
+        .foreground(ERROR)
+        .bold(true);
+    private static final Style USER_LABEL = Style.newStyle()
+        .foreground(ACCENT)
+        .bold(true);
+    private static final Style ASSISTANT_LABEL = Style.newStyle()
+        .foreground(PRIMARY)
+        .bold(true);
+    private static final Style INPUT_PROMPT = Style.newStyle()
+        .foreground(ACCENT)
+        .bold(true);
+    private static final Style INPUT_TEXT = Style.newStyle().foreground(PRIMARY);
+    private static final Style SPINNER = Style.newStyle().foreground(SECONDARY);
+    private static final Style MUTED_TEXT = Style.newStyle().foreground(MUTED);
+    private static final Style BORDER_LINE = Style.newStyle().foreground(BORDER);
+
+    /** Upper bound on memoized fragments per style; a full table is simply dropped. */
+    private static final int FRAGMENT_LIMIT = 256;
+    private static final Map<Style, Map<String, String>> FRAGMENTS = fragmentTables(
+        BRAND_TITLE,
+        SECTION_HEADER,
+        HINT,
+        SUCCESS_STYLE,
+        WARNING_STYLE,
+        ERROR_STYLE,
+        USER_LABEL,
+        ASSISTANT_LABEL,
+        INPUT_PROMPT,
+        INPUT_TEXT,
+        SPINNER,
+        MUTED_TEXT,
+        BORDER_LINE
+    );
+    private static final String BULLET = render(MUTED_TEXT, " • ");
+
     public static Style brandTitle() {
-        return Style.newStyle().foreground(PRIMARY).bold(true);
+        return BRAND_TITLE;
     }
 
     public static Style sectionHeader() {
-        return Style.newStyle().foreground(SECONDARY).bold(true);
+        return SECTION_HEADER;
     }
 
     public static Style hint() {
-        return Style.newStyle().foreground(MUTED).faint(true);
+        return HINT;
     }
 
     public static Style success() {
-        return Style.newStyle().foreground(SUCCESS);
+        return SUCCESS_STYLE;
     }
 
     public static Style warning() {
-        return Style.newStyle().foreground(WARNING);
+        return WARNING_STYLE;
     }
 
     public static Style error() {
-        return Style.newStyle().foreground(ERROR).bold(true);
+        return ERROR_STYLE;
     }
 
     public static Style userLabel() {
-        return Style.newStyle().foreground(ACCENT).bold(true);
+        return USER_LABEL;
     }
 
     public static Style assistantLabel() {
-        return Style.newStyle().foreground(PRIMARY).bold(true);
+        return ASSISTANT_LABEL;
     }
 
     public static Style inputPrompt() {
-        return Style.newStyle().foreground(ACCENT).bold(true);
+        return INPUT_PROMPT;
+    }
+
+    /** Style for text typed into the composer. */
+    public static Style inputText() {
+        return INPUT_TEXT;
     }
 
     public static Style spinner() {
-        return Style.newStyle().foreground(SECONDARY);
+        return SPINNER;
+    }
+
+    /** Plain muted foreground, used for secondary info such as the model name. */
+    public static Style muted() {
+        return MUTED_TEXT;
+    }
+
+    /** Foreground used for frame borders. */
+    public static Style border() {
+        return BORDER_LINE;
+    }
+
+    /**
+     * Renders text with a theme style, memoizing the result when the style is one of the
+     * shared theme styles. Meant for short fragments that recur across frames; other
+     * styles are rendered directly.
+     */
+    public static String render(Style style, String text) {
+        if (text == null) text = "";
+        Map<String, String> table = FRAGMENTS.get(style);
+        if (table == null) return style.render(text);
+        String rendered = table.get(text);
+        if (rendered == null) {
+            if (table.size() >= FRAGMENT_LIMIT) table.clear();
+            rendered = style.render(text);
+            table.put(text, rendered);
+        }
+        return rendered;
+    }
+
+    /** Renders a run of horizontal border characters, memoized per length. */
+    public static String borderRun(int length) {
+        return render(BORDER_LINE, "─".repeat(Math.max(0, length)));
     }
 
     /** Renders a horizontal divider line. */
@@ -73,8 +163,9 @@ public final class TuiTheme {
         return style.render("─".repeat(width));
     }
 
+    /** Renders the default muted divider line, memoized per width. */
     public static String divider(int width) {
-        return divider(width, MUTED);
+        return render(MUTED_TEXT, "─".repeat(Math.max(0, width)));
     }
 
     public static String joinVertical(Position pos, String... strs) {
@@ -83,81 +174,27 @@ public final class TuiTheme {
 
     /** Centers text within a given width. */
     public static String center(String text, int width) {
-        int textLen = stripAnsi(text).length();
-        if (textLen >= width) return text;
-        int padding = (width - textLen) / 2;
-        return " ".repeat(padding) + text;
+        return AnsiText.center(text, width);
     }
 
     /** Pads text with spaces on the right to reach a target width. */
     public static String padRight(String text, int width) {
-        if (text == null) text = "";
-        int textLen = stripAnsi(text).length();
-        if (textLen >= width) return text;
-        return text + " ".repeat(width - textLen);
+        return AnsiText.padRight(text, width);
     }
 
     /** Truncates text with an ellipsis if it exceeds the specified width, preserving ANSI styling. */
     public static String truncate(String text, int width) {
-        if (text == null) return "";
-        int visualLen = visualWidth(text);
-        if (visualLen <= width) return text;
-        if (width <= 3) return truncatePreservingAnsi(text, width);
-        return truncatePreservingAnsi(text, width - 3) + "...";
-    }
-
-    /** Truncates styled text to a target visual width while preserving ANSI escape sequences. */
-    private static String truncatePreservingAnsi(String text, int targetWidth) {
-        if (text == null || targetWidth <= 0) return "";
-
-        StringBuilder result = new StringBuilder();
-        int visualCount = 0;
-        int i = 0;
-        boolean hasOpenAnsi = false;
-
-        while (i < text.length() && visualCount < targetWidth) {
-            int ansiEnd = findAnsiSequenceEnd(text, i);
-            if (ansiEnd > i) {
-                String seq = text.substring(i, ansiEnd);
-                result.append(seq);
-                hasOpenAnsi = !seq.equals(ANSI_RESET);
-                i = ansiEnd;
-            } else {
-                result.append(text.charAt(i));
-                visualCount++;
-                i++;
-            }
-        }
-
-        if (hasOpenAnsi) {
-            result.append(ANSI_RESET);
-        }
-        return result.toString();
-    }
-
-    /** Returns end index of ANSI sequence starting at pos, or pos if none found. */
-    private static int findAnsiSequenceEnd(String text, int pos) {
-        if (pos + 1 >= text.length()) return pos;
-        if (
-            text.charAt(pos) != ANSI_ESC || text.charAt(pos + 1) != '['
-        ) return pos;
-
-        int end = pos + 2;
-        while (end < text.length() && text.charAt(end) != 'm') {
-            end++;
-        }
-        return (end < text.length()) ? end + 1 : pos;
+        return AnsiText.truncate(text, width);
     }
 
     /** Removes all ANSI escape sequences from the provided text. */
     public static String stripAnsi(String text) {
-        if (text == null) return "";
-        return text.replaceAll("\u001B\\[[;\\d]*m", "");
+        return AnsiText.strip(text);
     }
 
     /** Returns the visual width of the text, excluding ANSI escape sequences. */
     public static int visualWidth(String text) {
-        return stripAnsi(text).length();
+        return AnsiText.visualWidth(text);
     }
 
     /** Removes trailing newlines from the provided string. */
@@ -174,15 +211,22 @@ public final class TuiTheme {
 
     /** Renders a keyboard shortcut hint (e.g., "ENTER submit"). */
     public static String shortcutHint(String key, String action) {
-        Style keyStyle = Style.newStyle().foreground(ACCENT).bold(true);
-        Style actionStyle = Style.newStyle().foreground(MUTED);
-        return keyStyle.render(key) + " " + actionStyle.render(action);
+        return render(USER_LABEL, key) + " " + render(MUTED_TEXT, action);
     }
 
     /** Joins multiple shortcut hints with a bullet separator. */
     public static String shortcutRow(String... shortcuts) {
-        Style bulletStyle = Style.newStyle().foreground(MUTED);
-        String bullet = bulletStyle.render(" • ");
-        return String.join(bullet, shortcuts);
+        return String.join(BULLET, shortcuts);
+    }
+
+    private static Map<Style, Map<String, String>> fragmentTables(
+        Style... styles
+    ) {
+        // Keyed by identity: only these shared instances are memoized.
+        Map<Style, Map<String, String>> tables = new IdentityHashMap<>();
+        for (Style style : styles) {
+            tables.put(style, new ConcurrentHashMap<>());
+        }
+        return tables;
     }
 }
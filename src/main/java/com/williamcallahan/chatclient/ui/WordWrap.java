@@ -0,0 +1,102 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Greedy word wrapper for plain (already sanitized) text that measures in terminal cells.
+ * Breaks at spaces, hard-breaks words wider than the line, never splits a wide character,
+ * and keeps leading indentation and blank lines so code and lists stay readable.
+ */
+final class WordWrap {
+
+    private WordWrap() {}
+
+    /** Wraps text to at most {@code width} cells per line; explicit newlines are kept. */
+    static List<String> wrap(String text, int width) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            out.add("");
+            return out;
+        }
+        int max = Math.max(1, width);
+        int start = 0;
+        while (true) {
+            int nl = text.indexOf('\n', start);
+            String paragraph = (nl < 0)
+                ? text.substring(start)
+                : text.substring(start, nl);
+            wrapParagraph(paragraph, max, out);
+            if (nl < 0) break;
+            start = nl + 1;
+        }
+        return out;
+    }
+
+    private static void wrapParagraph(String text, int width, List<String> out) {
+        if (DisplayWidth.of(text) <= width) {
+            out.add(text);
+            return;
+        }
+
+        StringBuilder line = new StringBuilder(width + 8);
+        int lineWidth = 0;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            boolean space = text.charAt(i) == ' ';
+            int end = i;
+            while (end < n && (text.charAt(end) == ' ') == space) end++;
+            int runWidth = space ? end - i : DisplayWidth.of(text.subSequence(i, end));
+
+            if (lineWidth + runWidth <= width) {
+                line.append(text, i, end);
+                lineWidth += runWidth;
+            } else if (space) {
+                // Spaces at a break are dropped rather than carried to the next line.
+                flush(line, out);
+                lineWidth = 0;
+            } else if (runWidth <= width && lineWidth > 0) {
+                flush(line, out);
+                line.append(text, i, end);
+                lineWidth = runWidth;
+            } else {
+                lineWidth = hardBreak(text, i, end, width, line, lineWidth, out);
+            }
+            i = end;
+        }
+        if (line.length() > 0 || out.isEmpty()) flush(line, out);
+    }
+
+    /** Splits a word across lines by cells, continuing on the current line; returns its new width. */
+    private static int hardBreak(
+        String text,
+        int from,
+        int to,
+        int width,
+        StringBuilder line,
+        int lineWidth,
+        List<String> out
+    ) {
+        int i = from;
+        while (i < to) {
+            int cp = text.codePointAt(i);
+            int cells = DisplayWidth.of(cp);
+            if (lineWidth + cells > width && lineWidth > 0) {
+                flush(line, out);
+                lineWidth = 0;
+            }
+            line.appendCodePoint(cp);
+            lineWidth += cells;
+            i += Character.charCount(cp);
+        }
+        return lineWidth;
+    }
+
+    private static void flush(StringBuilder line, List<String> out) {
+        int end = line.length();
+        while (end > 0 && line.charAt(end - 1) == ' ') end--;
+        out.add(line.substring(0, end));
+        line.setLength(0);
+    }
+}
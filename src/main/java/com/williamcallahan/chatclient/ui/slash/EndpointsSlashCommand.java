@@ -0,0 +1,30 @@
+package com.williamcallahan.chatclient.ui.slash;
+
+/**
+ * Shows per-endpoint health, load and latency for the configured endpoint pool.
+ *
+ * This command doesn't execute directly — ChatConversationScreen reads the pool stats.
+ */
+public final class EndpointsSlashCommand implements SlashCommand {
+
+    @Override
+    public String name() {
+        return "/endpoints";
+    }
+
+    @Override
+    public String description() {
+        return "Show endpoint pool stats";
+    }
+
+    @Override
+    public boolean matchesInvocation(String input) {
+        return input != null && input.trim().equalsIgnoreCase(name());
+    }
+
+    @Override
+    public String run(String input) {
+        // Handled by ChatConversationScreen — formats OpenAiService.endpoints().stats()
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.williamcallahan.chatclient.ui.slash;
+
+/**
+ * Toggles the render performance HUD; {@code /perf dump} writes its histograms to disk.
+ *
+ * This command doesn't execute directly — ChatConversationScreen owns the HUD state.
+ */
+public final class PerfSlashCommand implements SlashCommand {
+
+    @Override
+    public String name() {
+        return "/perf";
+    }
+
+    @Override
+    public String description() {
+        return "Toggle performance HUD (/perf dump saves histograms)";
+    }
+
+    @Override
+    public boolean matchesInvocation(String input) {
+        if (input == null) return false;
+        String trimmed = input.trim().toLowerCase();
+        return trimmed.equals("/perf") || trimmed.startsWith("/perf ");
+    }
+
+    /** True for {@code /perf dump}. */
+    public static boolean isDump(String input) {
+        if (input == null) return false;
+        String[] parts = input.trim().split("\\s+");
+        return parts.length > 1 && "dump".equalsIgnoreCase(parts[1]);
+    }
+
+    @Override
+    public String run(String input) {
+        // Handled by ChatConversationScreen — toggles the HUD or dumps histograms
+        return null;
+    }
+}
@@ -14,6 +14,9 @@ public final class SlashCommands {
             new LocateSlashCommand.Command(),
             new ModelSlashCommand(),
             new ConfigSlashCommand(),
+            new PerfSlashCommand(),
+            new EndpointsSlashCommand(),
+            new StatsSlashCommand(),
             new NewSlashCommand.Command(),
             new ClearSlashCommand.Command(),
             new AboutSlashCommand.Command(),
@@ -0,0 +1,30 @@
+package com.williamcallahan.chatclient.ui.slash;
+
+/**
+ * Shows token usage and request timings for the current conversation.
+ *
+ * This command doesn't execute directly — ChatConversationScreen sums the message usage.
+ */
+public final class StatsSlashCommand implements SlashCommand {
+
+    @Override
+    public String name() {
+        return "/stats";
+    }
+
+    @Override
+    public String description() {
+        return "Show token usage and latency";
+    }
+
+    @Override
+    public boolean matchesInvocation(String input) {
+        return input != null && input.trim().equalsIgnoreCase(name());
+    }
+
+    @Override
+    public String run(String input) {
+        // Handled by ChatConversationScreen — formats UsageStats.totals(messages)
+        return null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.williamcallahan.chatclient.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EndpointPoolTest {
+
+    @Test
+    void parse_ReadsUrlsAndWeights() {
+        assertEquals(
+            List.of(
+                new EndpointPool.Spec("http://a:1234/v1", 2),
+                new EndpointPool.Spec("http://b:1234/v1", 1)
+            ),
+            EndpointPool.parse(" http://a:1234/v1;weight=2 , http://b:1234/v1;weight=x,")
+        );
+    }
+
+    @Test
+    void execute_FailsOverOnConnectionErrors() {
+        EndpointPool pool = pool();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = pool.execute((client, firstByte) -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new UncheckedIOException(new IOException("Connection refused"));
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(1, pool.stats().stream().filter(s -> !s.healthy()).count());
+        assertEquals(1, pool.stats().stream().mapToLong(EndpointPool.Stats::failures).sum());
+    }
+
+    @Test
+    void execute_DoesNotRetryAfterFirstByte() {
+        EndpointPool pool = pool();
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(
+            UncheckedIOException.class,
+            () -> pool.execute((client, firstByte) -> {
+                attempts.incrementAndGet();
+                firstByte.run();
+                throw new UncheckedIOException(new IOException("Stream reset"));
+            })
+        );
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void execute_KeepsFullResponseTimeOutOfFirstByteLatency() {
+        EndpointPool pool = pool();
+
+        pool.execute((client, firstByte) -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ignored) {}
+            return "ok";
+        });
+
+        EndpointPool.Stats used = pool.stats().stream()
+            .filter(s -> s.requests() == 1)
+            .findFirst()
+            .orElseThrow();
+        assertEquals(0, used.firstByteMillis());
+        assertTrue(used.totalMillis() > 0);
+    }
+
+    @Test
+    void execute_KeepsALoneEndpointUpAfterAConnectionError() {
+        EndpointPool pool = EndpointPool.of(
+            List.of(new EndpointPool.Spec("http://a:1234/v1", 1)),
+            url -> null
+        );
+
+        assertThrows(
+            UncheckedIOException.class,
+            () -> pool.execute((client, firstByte) -> {
+                throw new UncheckedIOException(new IOException("Connection refused"));
+            })
+        );
+
+        EndpointPool.Stats stats = pool.stats().getFirst();
+        assertTrue(stats.healthy());
+        assertEquals(1, stats.failures());
+    }
+
+    private static EndpointPool pool() {
+        return EndpointPool.of(
+            List.of(
+                new EndpointPool.Spec("http://a:1234/v1", 1),
+                new EndpointPool.Spec("http://b:1234/v1", 1)
+            ),
+            url -> null
+        );
+    }
+}
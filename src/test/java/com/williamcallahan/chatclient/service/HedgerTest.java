@@ -0,0 +1,134 @@
+package com.williamcallahan.chatclient.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgerTest {
+
+    @Test
+    void delayNanos_WaitsForEnoughSamples() {
+        Hedger hedger = new Hedger(90, 0.1, null);
+        for (int i = 1; i <= 19; i++) hedger.record(i * 1_000_000_000L);
+        assertEquals(-1, hedger.delayNanos());
+
+        hedger.record(20 * 1_000_000_000L);
+
+        assertEquals(18 * 1_000_000_000L, hedger.delayNanos());
+    }
+
+    @Test
+    void run_SlowPrimaryLosesToHedge() {
+        Hedger hedger = new Hedger(50, 0.5, null);
+        for (int i = 0; i < 20; i++) hedger.record(1_000_000L);
+        AtomicInteger legs = new AtomicInteger();
+
+        String result = hedger.run(null, new Cancellation(), (params, cancel, firstByte) -> {
+            if (legs.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException ignored) {}
+                return "primary";
+            }
+            firstByte.getAsBoolean();
+            return "hedge";
+        });
+
+        assertEquals("hedge", result);
+        Hedger.Stats stats = hedger.stats();
+        assertEquals(1, stats.hedged());
+        assertEquals(1, stats.hedgeWins());
+    }
+
+    @Test
+    void run_SkipsHedgeWhenPrimaryAnswersAfterTheDelay() throws Exception {
+        Hedger hedger = new Hedger(50, 0.5, null);
+        for (int i = 0; i < 20; i++) hedger.record(1_000_000L);
+        AtomicInteger legs = new AtomicInteger();
+        CountDownLatch delayPassed = new CountDownLatch(1);
+        CountDownLatch primaryAnswered = new CountDownLatch(1);
+        // The primary's first byte lands after the hedge delay but before the hedge starts
+        hedger.beforeHedge = () -> {
+            delayPassed.countDown();
+            try {
+                primaryAnswered.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        String result = hedger.run(null, new Cancellation(), (params, cancel, firstByte) -> {
+            if (legs.incrementAndGet() > 1) return "hedge";
+            try {
+                delayPassed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            firstByte.getAsBoolean();
+            primaryAnswered.countDown();
+            return "primary";
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, legs.get());
+        Hedger.Stats stats = hedger.stats();
+        assertEquals(0, stats.hedged());
+        assertEquals(0, stats.hedgeWins());
+    }
+
+    @Test
+    void run_StartsNoHedgeAfterCancellation() {
+        Hedger hedger = new Hedger(50, 0.5, null);
+        for (int i = 0; i < 20; i++) hedger.record(1_000_000L);
+        AtomicInteger legs = new AtomicInteger();
+        Cancellation cancellation = new Cancellation();
+        // The user cancels after the hedge delay but before the hedge starts
+        hedger.beforeHedge = cancellation::cancel;
+
+        assertThrows(
+            RequestCancelledException.class,
+            () -> hedger.run(null, cancellation, (params, cancel, firstByte) -> {
+                legs.incrementAndGet();
+                long deadline = System.nanoTime() + 5_000_000_000L;
+                while (!cancel.isCancelled()) {
+                    if (System.nanoTime() > deadline) return "never cancelled";
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                throw new RequestCancelledException();
+            })
+        );
+        assertEquals(1, legs.get());
+        assertEquals(0, hedger.stats().hedged());
+    }
+
+    @Test
+    void run_RecordsLatencyFromThePrimarysStart() {
+        Hedger hedger = new Hedger(100, 0.5, null);
+        for (int i = 0; i < 20; i++) hedger.record(1_000_000L);
+        AtomicInteger legs = new AtomicInteger();
+
+        hedger.run(null, new Cancellation(), (params, cancel, firstByte) -> {
+            if (legs.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException ignored) {}
+                return "primary";
+            }
+            firstByte.getAsBoolean();
+            return "hedge";
+        });
+
+        // The hedge answered at once, but only after the 100 ms hedge delay
+        assertTrue(hedger.delayNanos() > 100_000_000L);
+    }
+}
@@ -0,0 +1,97 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.models.chat.completions.ChatCompletionMessageParam;
+import com.openai.models.chat.completions.ChatCompletionUserMessageParam;
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import com.williamcallahan.chatclient.domain.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MessageParamCacheTest {
+
+    private final AtomicInteger conversions = new AtomicInteger();
+    private final MessageParamCache cache = new MessageParamCache(
+        user("system"),
+        m -> {
+            conversions.incrementAndGet();
+            return user(m.content());
+        }
+    );
+
+    @Test
+    void params_ConvertsOnlyNewMessages() {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(message("m_1", ChatMessage.Source.USER_INPUT, "one"));
+        messages.add(message("m_2", ChatMessage.Source.USER_INPUT, "two"));
+        assertEquals(3, cache.params(messages).size());
+        assertEquals(2, conversions.get());
+
+        messages.add(message("m_3", ChatMessage.Source.USER_INPUT, "three"));
+        List<ChatCompletionMessageParam> params = cache.params(messages);
+
+        assertEquals(4, params.size());
+        assertEquals(3, conversions.get());
+        assertEquals("three", text(params.getLast()));
+    }
+
+    @Test
+    void params_SendsInternalMessagesOnlyWhileNewest() {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(message("m_1", ChatMessage.Source.USER_INPUT, "one"));
+        messages.add(message("m_2", ChatMessage.Source.INTERNAL, "hidden"));
+        assertEquals("hidden", text(cache.params(messages).getLast()));
+
+        messages.add(message("m_3", ChatMessage.Source.USER_INPUT, "three"));
+        List<ChatCompletionMessageParam> params = cache.params(messages);
+
+        assertEquals(
+            List.of("system", "one", "three"),
+            params.stream().map(MessageParamCacheTest::text).toList()
+        );
+    }
+
+    @Test
+    void params_ReusesConversionsByIdAfterRebuild() {
+        List<ChatMessage> messages = new ArrayList<>();
+        messages.add(message("m_1", ChatMessage.Source.USER_INPUT, "one"));
+        cache.params(messages);
+
+        cache.params(new ArrayList<>(messages));
+
+        assertEquals(1, conversions.get());
+    }
+
+    private static ChatMessage message(String id, ChatMessage.Source source, String content) {
+        return new ChatMessage(
+            id,
+            "c_1",
+            0,
+            Role.USER,
+            source,
+            content,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            null
+        );
+    }
+
+    private static ChatCompletionMessageParam user(String content) {
+        return ChatCompletionMessageParam.ofUser(
+            ChatCompletionUserMessageParam.builder().content(content).build()
+        );
+    }
+
+    private static String text(ChatCompletionMessageParam param) {
+        return param.asUser().content().asText();
+    }
+}
@@ -0,0 +1,74 @@
+package com.williamcallahan.chatclient.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ModelListCacheTest {
+
+    private static final String BASE_URL = "http://localhost:1234/v1";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void cached_ReadsRefreshedListBackFromDisk() {
+        AtomicInteger fetches = new AtomicInteger();
+        ModelListCache first = cache(NOW, () -> {
+            fetches.incrementAndGet();
+            return List.of("llama3.2", "qwen3");
+        });
+        assertNull(first.cached());
+        first.refresh().join();
+
+        ModelListCache second = cache(NOW.plusSeconds(60), () -> {
+            fetches.incrementAndGet();
+            return List.of();
+        });
+        ModelListCache.Snapshot snapshot = second.cached();
+
+        assertEquals(List.of("llama3.2", "qwen3"), snapshot.models());
+        assertFalse(snapshot.stale());
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void cached_MarksEntriesPastTheTtlStale() {
+        cache(NOW, () -> List.of("gpt-4.1-mini")).refresh().join();
+
+        ModelListCache.Snapshot snapshot = cache(
+            NOW.plus(Duration.ofHours(2)),
+            List::of
+        ).cached();
+
+        assertTrue(snapshot.stale());
+        assertEquals(List.of("gpt-4.1-mini"), snapshot.models());
+    }
+
+    private ModelListCache cache(
+        Instant now,
+        Supplier<List<String>> fetcher
+    ) {
+        return new ModelListCache(
+            BASE_URL,
+            dir,
+            Duration.ofHours(1),
+            fetcher,
+            Clock.fixed(now, ZoneOffset.UTC)
+        );
+    }
+}
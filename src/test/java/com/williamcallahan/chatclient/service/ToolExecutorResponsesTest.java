@@ -0,0 +1,272 @@
+package com.williamcallahan.chatclient.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.openai.client.okhttp.OpenAIOkHttpClient;
+import com.openai.models.FunctionDefinition;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import com.williamcallahan.chatclient.domain.Conversation;
+import com.williamcallahan.chatclient.domain.Role;
+import com.williamcallahan.chatclient.service.tools.Tool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/** Runs the Responses tool loop against a local stand-in for {@code /v1/responses}. */
+class ToolExecutorResponsesTest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private Function<JsonNode, String> reply;
+    private boolean rejectPreviousId = false;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/responses", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void respond_SendsOnlyNewItemsAfterTheFirstResponse() {
+        reply = body -> switch (requests.size()) {
+            case 1 -> functionCallResponse("resp_1", "call_1");
+            case 2 -> textResponse("resp_2", "Echoed.");
+            default -> textResponse("resp_3", "Again.");
+        };
+        Conversation conversation = conversation();
+        ToolExecutor executor = executor();
+
+        addUser(conversation, "echo something");
+        ToolExecutor.Reply first = executor.respond(
+            conversation,
+            null,
+            null,
+            new Cancellation()
+        );
+        addAssistant(conversation, first.text());
+        addUser(conversation, "once more");
+        executor.respond(conversation, null, null, new Cancellation());
+
+        assertEquals("Echoed.", first.text());
+        assertFalse(requests.get(0).has("previous_response_id"));
+
+        JsonNode toolTurn = requests.get(1);
+        assertEquals("resp_1", toolTurn.get("previous_response_id").asText());
+        assertEquals(1, toolTurn.get("input").size());
+        assertEquals("function_call_output", toolTurn.get("input").get(0).get("type").asText());
+        assertEquals("call_1", toolTurn.get("input").get(0).get("call_id").asText());
+
+        JsonNode nextTurn = requests.get(2);
+        assertEquals("resp_2", nextTurn.get("previous_response_id").asText());
+        assertEquals(1, nextTurn.get("input").size());
+        assertEquals("once more", nextTurn.get("input").get(0).get("content").asText());
+    }
+
+    @Test
+    void respond_ReplaysTheConversationWhenThePreviousIdIsRefused() {
+        rejectPreviousId = true;
+        reply = body -> textResponse("resp_" + requests.size(), "ok");
+        Conversation conversation = conversation();
+        ToolExecutor executor = executor();
+
+        addUser(conversation, "first");
+        addAssistant(
+            conversation,
+            executor.respond(conversation, null, null, new Cancellation()).text()
+        );
+        addUser(conversation, "second");
+        ToolExecutor.Reply second = executor.respond(
+            conversation,
+            null,
+            null,
+            new Cancellation()
+        );
+
+        assertEquals("ok", second.text());
+        assertEquals(3, requests.size());
+        assertEquals("resp_1", requests.get(1).get("previous_response_id").asText());
+        JsonNode replay = requests.get(2);
+        assertFalse(replay.has("previous_response_id"));
+        assertEquals(3, replay.get("input").size());
+    }
+
+    @Test
+    void respond_KeepsChainingAfterASingleRefusal() {
+        reply = body -> textResponse("resp_" + requests.size(), "ok");
+        Conversation conversation = conversation();
+        ToolExecutor executor = executor();
+
+        addUser(conversation, "first");
+        addAssistant(
+            conversation,
+            executor.respond(conversation, null, null, new Cancellation()).text()
+        );
+        rejectPreviousId = true;
+        addUser(conversation, "second");
+        addAssistant(
+            conversation,
+            executor.respond(conversation, null, null, new Cancellation()).text()
+        );
+        rejectPreviousId = false;
+        addUser(conversation, "third");
+        executor.respond(conversation, null, null, new Cancellation());
+
+        assertEquals(4, requests.size());
+        assertFalse(requests.get(2).has("previous_response_id"));
+        assertEquals("resp_3", requests.get(3).get("previous_response_id").asText());
+        assertEquals(
+            "http://127.0.0.1:" + server.getAddress().getPort() + "/v1",
+            conversation.getMetadata().get(ToolExecutor.META_STORED_ON)
+        );
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode body = JSON.readTree(exchange.getRequestBody());
+        requests.add(body);
+        int status = 200;
+        String response;
+        if (rejectPreviousId && body.has("previous_response_id")) {
+            status = 400;
+            response = """
+                {"error": {"message": "previous_response_id is not supported",
+                 "type": "invalid_request_error"}}
+                """;
+        } else {
+            response = reply.apply(body);
+        }
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private ToolExecutor executor() {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/v1";
+        EndpointPool pool = EndpointPool.of(
+            List.of(new EndpointPool.Spec(baseUrl, 1)),
+            url -> OpenAIOkHttpClient.builder()
+                .apiKey("test")
+                .baseUrl(url)
+                .maxRetries(0)
+                .build()
+        );
+        return new ToolExecutor(
+            null,
+            new ResponsesService(pool),
+            List.of(new EchoTool()),
+            Duration.ofSeconds(5),
+            2
+        );
+    }
+
+    private static String functionCallResponse(String id, String callId) {
+        return response(id, """
+            {"type": "function_call", "id": "fc_1", "call_id": "%s", "name": "echo",
+             "arguments": "{\\"text\\": \\"hi\\"}", "status": "completed"}
+            """.formatted(callId));
+    }
+
+    private static String textResponse(String id, String text) {
+        return response(id, """
+            {"type": "message", "id": "msg_1", "role": "assistant", "status": "completed",
+             "content": [{"type": "output_text", "text": "%s", "annotations": []}]}
+            """.formatted(text));
+    }
+
+    private static String response(String id, String outputItem) {
+        return """
+            {"id": "%s", "object": "response", "created_at": 0, "status": "completed",
+             "model": "test-model", "output": [%s], "error": null,
+             "incomplete_details": null, "instructions": null, "metadata": {},
+             "parallel_tool_calls": true, "temperature": 0.3, "tool_choice": "auto",
+             "tools": [], "top_p": 1.0}
+            """.formatted(id, outputItem);
+    }
+
+    private static Conversation conversation() {
+        return Conversation.builder()
+            .id("c_1")
+            .apiFamily(Conversation.ApiFamily.RESPONSES)
+            .defaultModel("test-model")
+            .build();
+    }
+
+    private static void addUser(Conversation conversation, String text) {
+        add(conversation, Role.USER, ChatMessage.Source.USER_INPUT, text);
+    }
+
+    private static void addAssistant(Conversation conversation, String text) {
+        add(conversation, Role.ASSISTANT, ChatMessage.Source.LLM_OUTPUT, text);
+    }
+
+    private static void add(
+        Conversation conversation,
+        Role role,
+        ChatMessage.Source source,
+        String text
+    ) {
+        int index = conversation.getMessages().size();
+        conversation.addMessage(
+            new ChatMessage(
+                "m_" + index,
+                conversation.getId(),
+                index,
+                role,
+                source,
+                text,
+                OffsetDateTime.now(ZoneOffset.UTC),
+                "test-model",
+                "openai",
+                null,
+                null,
+                null,
+                null,
+                null
+            )
+        );
+    }
+
+    private static final class EchoTool implements Tool {
+
+        @Override
+        public String name() {
+            return "echo";
+        }
+
+        @Override
+        public FunctionDefinition definition() {
+            return FunctionDefinition.builder().name("echo").build();
+        }
+
+        @Override
+        public Object execute(Map<String, Object> arguments) {
+            return Map.of("echo", arguments.get("text"));
+        }
+    }
+}
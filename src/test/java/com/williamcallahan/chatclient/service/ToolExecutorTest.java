@@ -1,12 +1,18 @@
 package com.williamcallahan.chatclient.service;
 
+import com.openai.models.FunctionDefinition;
 import com.williamcallahan.chatclient.domain.ChatMessage;
 import com.williamcallahan.chatclient.domain.Role;
+import com.williamcallahan.chatclient.service.tools.Tool;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -55,6 +61,93 @@ class ToolExecutorTest {
 
         assertFalse(ToolExecutor.shouldIncludeUserMessage(message, message.content()));
     }
-}
 
+    @Test
+    void executeAll_ReturnsResultsInCallOrder() {
+        ToolExecutor executor = new ToolExecutor(
+            null,
+            List.of(new SleepTool()),
+            Duration.ofSeconds(5),
+            4
+        );
+
+        List<Object> results = executor.executeAll(
+            List.of(
+                new ToolExecutor.PendingCall("a", "sleep", Map.of("ms", 300)),
+                new ToolExecutor.PendingCall("b", "sleep", Map.of("ms", 10)),
+                new ToolExecutor.PendingCall("c", "sleep", Map.of("ms", 100))
+            ),
+            new Cancellation()
+        );
+
+        assertEquals(List.of(300, 10, 100), results);
+    }
 
+    @Test
+    void executeAll_ReportsTimeoutsAndUnknownToolsAsErrors() {
+        ToolExecutor executor = new ToolExecutor(
+            null,
+            List.of(new SleepTool()),
+            Duration.ofSeconds(1),
+            1
+        );
+
+        List<Object> results = executor.executeAll(
+            List.of(
+                new ToolExecutor.PendingCall("a", "sleep", Map.of("ms", 10_000)),
+                new ToolExecutor.PendingCall("b", "missing", Map.of()),
+                new ToolExecutor.PendingCall("c", "sleep", Map.of("ms", 10))
+            ),
+            new Cancellation()
+        );
+
+        assertEquals(Map.of("error", "Timed out after 1s"), results.get(0));
+        assertEquals(Map.of("error", "Unknown tool: missing"), results.get(1));
+        assertEquals(10, results.get(2));
+    }
+
+    @Test
+    void executeAll_CancellationEndsPendingCalls() {
+        ToolExecutor executor = new ToolExecutor(
+            null,
+            List.of(new SleepTool()),
+            Duration.ofSeconds(30),
+            4
+        );
+        Cancellation cancellation = new Cancellation();
+        Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException ignored) {}
+            cancellation.cancel();
+        });
+
+        List<Object> results = executor.executeAll(
+            List.of(new ToolExecutor.PendingCall("a", "sleep", Map.of("ms", 30_000))),
+            cancellation
+        );
+
+        assertEquals(List.of(Map.of("error", "Cancelled by the user")), results);
+    }
+
+    /** Sleeps for the requested milliseconds and echoes them back. */
+    private static final class SleepTool implements Tool {
+
+        @Override
+        public String name() {
+            return "sleep";
+        }
+
+        @Override
+        public FunctionDefinition definition() {
+            return FunctionDefinition.builder().name("sleep").build();
+        }
+
+        @Override
+        public Object execute(Map<String, Object> arguments) throws Exception {
+            int ms = (Integer) arguments.get("ms");
+            Thread.sleep(ms);
+            return ms;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.williamcallahan.chatclient.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ToolResultEncoderTest {
+
+    @Test
+    void encode_TabulatesArraysOfObjectsAndDropsNulls() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("location", "Austin, United States");
+        result.put("note", null);
+        result.put(
+            "forecast",
+            List.of(
+                day("2026-07-01", 97.6, "Clear sky"),
+                day("2026-07-02", 95.1, "Rain showers (slight)")
+            )
+        );
+
+        ToolResultEncoder.Encoded encoded = ToolResultEncoder.encode(result, 1_000);
+
+        assertEquals(
+            "{\"location\":\"Austin, United States\",\"forecast\":{" +
+            "\"columns\":[\"date\",\"high_F\",\"condition\"]," +
+            "\"rows\":[[\"2026-07-01\",97.6,\"Clear sky\"]," +
+            "[\"2026-07-02\",95.1,\"Rain showers (slight)\"]]}}",
+            encoded.text()
+        );
+        assertFalse(encoded.trimmed());
+        assertTrue(encoded.encodedTokens() < encoded.originalTokens());
+    }
+
+    @Test
+    void encode_DropsTrailingRowsToFitTheBudget() {
+        List<Map<String, Object>> places = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Map<String, Object> place = new HashMap<>();
+            place.put("name", "Coffee shop number " + i);
+            places.add(place);
+        }
+
+        ToolResultEncoder.Encoded encoded = ToolResultEncoder.encode(
+            Map.of("results", places),
+            60
+        );
+
+        assertTrue(encoded.trimmed());
+        assertTrue(encoded.encodedTokens() <= 70, encoded.text());
+        assertTrue(encoded.text().contains("\"omitted_rows\":"), encoded.text());
+        assertTrue(encoded.text().contains("Coffee shop number 0"));
+        assertEquals(true, encoded.usage().get(UsageStats.RESULT_TRIMMED));
+    }
+
+    private static Map<String, Object> day(String date, double high, String condition) {
+        Map<String, Object> day = new LinkedHashMap<>();
+        day.put("date", date);
+        day.put("high_F", high);
+        day.put("condition", condition);
+        return day;
+    }
+}
@@ -0,0 +1,90 @@
+package com.williamcallahan.chatclient.service;
+
+import com.openai.models.completions.CompletionUsage;
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import com.williamcallahan.chatclient.domain.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UsageStatsTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void forRequest_MeasuresSpeedFromFirstByteToEnd() {
+        CompletionUsage usage = CompletionUsage.builder()
+            .promptTokens(1200)
+            .completionTokens(100)
+            .totalTokens(1300)
+            .promptTokensDetails(
+                CompletionUsage.PromptTokensDetails.builder().cachedTokens(1024).build()
+            )
+            .build();
+
+        Map<String, Object> map = UsageStats.forRequest(2 * MS, 500 * MS, 2500 * MS, usage);
+
+        assertEquals(1200L, map.get(UsageStats.PROMPT_TOKENS));
+        assertEquals(1024L, map.get(UsageStats.CACHED_TOKENS));
+        assertEquals(500.0, map.get(UsageStats.FIRST_BYTE_MS));
+        assertEquals(50.0, map.get(UsageStats.TOKENS_PER_SEC));
+    }
+
+    @Test
+    void totals_SumsAssistantMessagesAndKeepsTheLast() {
+        Map<String, Object> first = UsageStats.forRequest(MS, 400 * MS, 1400 * MS, null);
+        first.put(UsageStats.TOOL_MS, 250.0);
+        Map<String, Object> second = Map.of(
+            UsageStats.PROMPT_TOKENS, 900,
+            UsageStats.COMPLETION_TOKENS, 40,
+            UsageStats.FIRST_BYTE_MS, 200.0
+        );
+
+        UsageStats.Totals totals = UsageStats.totals(
+            List.of(
+                message(Role.USER, null),
+                message(Role.ASSISTANT, first),
+                message(
+                    Role.TOOL,
+                    Map.of(
+                        UsageStats.RESULT_ORIGINAL_TOKENS, 120,
+                        UsageStats.RESULT_TOKENS, 45
+                    )
+                ),
+                message(Role.ASSISTANT, second)
+            )
+        );
+
+        assertEquals(2, totals.requests());
+        assertEquals(900, totals.promptTokens());
+        assertEquals(300.0, totals.avgFirstByteMillis());
+        assertEquals(250.0, totals.toolMillis());
+        assertEquals(120, totals.toolResultOriginalTokens());
+        assertEquals(45, totals.toolResultTokens());
+        assertEquals(second, totals.last());
+        assertFalse(first.containsKey(UsageStats.TOKENS_PER_SEC));
+    }
+
+    private static ChatMessage message(Role role, Map<String, Object> usage) {
+        return new ChatMessage(
+            "m_1",
+            "c_1",
+            0,
+            role,
+            ChatMessage.Source.LLM_OUTPUT,
+            "",
+            null,
+            null,
+            null,
+            null,
+            null,
+            null,
+            usage,
+            null
+        );
+    }
+}
@@ -0,0 +1,96 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GazetteerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void find_ReturnsExactNamesByPopulationOnly() throws IOException {
+        Gazetteer gazetteer = Gazetteer.open(citiesFile(), dir.resolve("index"));
+
+        List<Gazetteer.Place> places = gazetteer.find("Paris", 10);
+
+        assertEquals(2, places.size());
+        assertEquals("FR", places.get(0).countryCode());
+        assertEquals("Texas", places.get(1).admin1());
+        assertTrue(gazetteer.find("Pari", 10).isEmpty());
+        assertEquals("Parishville", gazetteer.find("parishville", 10).getFirst().name());
+    }
+
+    @Test
+    void find_MatchesWithoutAccentsOrCase() throws IOException {
+        Gazetteer gazetteer = Gazetteer.open(citiesFile(), dir.resolve("index"));
+
+        Gazetteer.Place lodz = gazetteer.find("LODZ", 1).getFirst();
+
+        assertEquals("Łódź", lodz.name());
+        assertEquals("Europe/Warsaw", lodz.timezone());
+        assertEquals(51.77, lodz.latitude(), 0.001);
+        assertTrue(gazetteer.find("Springfield", 5).isEmpty());
+    }
+
+    private Path citiesFile() throws IOException {
+        Files.writeString(
+            dir.resolve("admin1CodesASCII.txt"),
+            "US.TX\tTexas\tTexas\t4736286\nUS.NY\tNew York\tNew York\t5128638\n"
+        );
+        Path cities = dir.resolve("cities.txt");
+        Files.writeString(
+            cities,
+            String.join(
+                "\n",
+                row("Paris", "Paris", 48.85, 2.35, "FR", "11", 2138551, "Europe/Paris"),
+                row("Paris", "Paris", 33.66, -95.56, "US", "TX", 24782, "America/Chicago"),
+                row("Parishville", "Parishville", 44.63, -74.81, "US", "NY", 2100, "America/New_York"),
+                row("Łódź", "Lodz", 51.77, 19.47, "PL", "74", 768755, "Europe/Warsaw")
+            )
+        );
+        return cities;
+    }
+
+    private static String row(
+        String name,
+        String ascii,
+        double lat,
+        double lon,
+        String countryCode,
+        String admin1,
+        int population,
+        String timezone
+    ) {
+        return String.join(
+            "\t",
+            "1",
+            name,
+            ascii,
+            "",
+            String.valueOf(lat),
+            String.valueOf(lon),
+            "P",
+            "PPL",
+            countryCode,
+            "",
+            admin1,
+            "",
+            "",
+            "",
+            String.valueOf(population),
+            "",
+            "0",
+            timezone,
+            "2024-01-01"
+        );
+    }
+}
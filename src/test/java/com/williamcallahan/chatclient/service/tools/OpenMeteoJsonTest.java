@@ -0,0 +1,64 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OpenMeteoJsonTest {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void forecasts_ReadsSingleObjectAndSkipsUnusedFields() throws Exception {
+        List<OpenMeteoJson.Forecast> forecasts = OpenMeteoJson.forecasts(JSON.createParser("""
+            {"latitude": 37.76, "elevation": 16.0,
+             "current_weather_units": {"temperature": "°F"},
+             "current_weather": {"time": "2026-07-01T12:00", "temperature": 64.2,
+                                 "windspeed": 16.1, "weathercode": 2, "is_day": 1},
+             "daily_units": {"time": "iso8601"},
+             "daily": {"time": ["2026-07-01"], "weathercode": [61],
+                       "temperature_2m_max": [68.0], "temperature_2m_min": [55.5]}}
+            """));
+
+        assertEquals(1, forecasts.size());
+        OpenMeteoJson.Forecast forecast = forecasts.getFirst();
+        assertEquals(64.2, forecast.temperature());
+        assertEquals(16.1, forecast.windspeed());
+        assertEquals(2, forecast.weathercode());
+        assertEquals(
+            List.of(new OpenMeteoJson.Day("2026-07-01", 68.0, 55.5, 61)),
+            forecast.days()
+        );
+    }
+
+    @Test
+    void candidates_ReadsResultsAndDefaultsMissingFields() throws Exception {
+        List<OpenMeteoJson.Candidate> candidates = OpenMeteoJson.candidates(JSON.createParser("""
+            {"results": [
+               {"id": 1, "name": "Portland", "latitude": 45.52, "longitude": -122.68,
+                "timezone": "America/Los_Angeles", "country": "United States",
+                "country_code": "US", "admin1": "Oregon", "population": 652503,
+                "postcodes": ["97201", "97202"]},
+               {"id": 2, "name": "Portland", "latitude": 43.66, "longitude": -70.26}
+             ],
+             "generationtime_ms": 0.5}
+            """));
+
+        assertEquals(2, candidates.size());
+        assertEquals("Oregon", candidates.get(0).admin1());
+        assertEquals(652503, candidates.get(0).population());
+        assertEquals("UTC", candidates.get(1).timezone());
+        assertEquals("", candidates.get(1).countryCode());
+    }
+
+    @Test
+    void candidates_EmptyWhenNothingMatched() throws Exception {
+        assertTrue(
+            OpenMeteoJson.candidates(JSON.createParser("{\"generationtime_ms\": 0.3}")).isEmpty()
+        );
+    }
+}
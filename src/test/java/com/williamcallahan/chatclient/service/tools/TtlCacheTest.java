@@ -0,0 +1,133 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TtlCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void get_MissesOnceTheTtlHasPassed() {
+        MutableClock clock = new MutableClock();
+        TtlCache<String> cache = new TtlCache<>(
+            8,
+            Duration.ofMinutes(15),
+            clock,
+            null,
+            String.class
+        );
+        cache.put("sf", "foggy");
+
+        assertEquals("foggy", cache.get("sf"));
+        clock.now = NOW.plus(Duration.ofMinutes(16));
+        assertNull(cache.get("sf"));
+        assertEquals(new TtlCache.Stats(1, 1, 0), cache.stats());
+    }
+
+    @Test
+    void put_EvictsTheLeastRecentlyUsedEntry() {
+        TtlCache<String> cache = new TtlCache<>(
+            2,
+            Duration.ofHours(1),
+            new MutableClock(),
+            null,
+            String.class
+        );
+        cache.put("a", "1");
+        cache.put("b", "2");
+        cache.get("a");
+        cache.put("c", "3");
+
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("3", cache.get("c"));
+    }
+
+    @Test
+    void get_ReadsLiveEntriesBackFromDisk() {
+        Path file = dir.resolve("cache.json");
+        MutableClock clock = new MutableClock();
+        TtlCache<WeatherForecastTool.Geo> cache = geoCache(file, clock);
+        cache.put(
+            "austin||||",
+            new WeatherForecastTool.Geo(
+                30.27,
+                -97.74,
+                "America/Chicago",
+                "United States",
+                "Austin"
+            )
+        );
+        cache.flush();
+
+        clock.now = NOW.plus(Duration.ofDays(1));
+        TtlCache<WeatherForecastTool.Geo> reloaded = geoCache(file, clock);
+
+        assertEquals("Austin", reloaded.get("austin||||").name());
+    }
+
+    @Test
+    void put_LeavesTheFileToFlush() {
+        Path file = dir.resolve("cache.json");
+        TtlCache<String> cache = new TtlCache<>(
+            8,
+            Duration.ofHours(1),
+            new MutableClock(),
+            file,
+            String.class
+        );
+        cache.put("a", "1");
+        cache.put("b", "2");
+
+        assertFalse(Files.exists(file));
+        cache.flush();
+        assertTrue(Files.exists(file));
+    }
+
+    private static TtlCache<WeatherForecastTool.Geo> geoCache(Path file, Clock clock) {
+        return new TtlCache<>(
+            8,
+            Duration.ofDays(30),
+            clock,
+            file,
+            WeatherForecastTool.Geo.class
+        );
+    }
+
+    private static final class MutableClock extends Clock {
+
+        Instant now = NOW;
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
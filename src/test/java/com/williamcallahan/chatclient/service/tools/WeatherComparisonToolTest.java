@@ -0,0 +1,81 @@
+package com.williamcallahan.chatclient.service.tools;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WeatherComparisonToolTest {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Test
+    void table_OneRowPerPlaceWithDailyColumns() throws Exception {
+        List<OpenMeteoJson.Forecast> forecasts = OpenMeteoJson.forecasts(JSON.createParser("""
+            [{"current_weather": {"temperature": 91.4, "windspeed": 8.2, "weathercode": 0},
+             "daily": {"time": ["2026-07-01", "2026-07-02"],
+                       "temperature_2m_max": [97.6, 95.1],
+                       "temperature_2m_min": [75.2, 74.0],
+                       "weathercode": [0, 80]}},
+             {"current_weather": {"temperature": 70.0, "windspeed": 12.0, "weathercode": 3},
+             "daily": {"time": ["2026-07-01", "2026-07-02"],
+                       "temperature_2m_max": [78.0, null],
+                       "temperature_2m_min": [61.0, null],
+                       "weathercode": [3, null]}}]
+            """));
+
+        Map<String, Object> table = WeatherComparisonTool.table(
+            List.of(
+                new WeatherForecastTool.Geo(30.27, -97.74, "America/Chicago", "United States", "Austin"),
+                new WeatherForecastTool.Geo(42.36, -71.06, "America/New_York", "United States", "Boston")
+            ),
+            forecasts
+        );
+
+        assertEquals(
+            List.of("location", "now_F", "now", "wind_mph", "2026-07-01", "2026-07-02"),
+            table.get("columns")
+        );
+        List<?> rows = (List<?>) table.get("rows");
+        assertEquals(2, rows.size());
+        List<?> first = (List<?>) rows.get(0);
+        assertEquals("Austin, United States", first.get(0));
+        assertEquals("Clear sky", first.get(2));
+        assertEquals("98/75 Clear sky", first.get(4));
+        assertEquals("95/74 Rain showers (slight)", first.get(5));
+        List<?> second = (List<?>) rows.get(1);
+        assertEquals("78/61 Overcast", second.get(4));
+        assertEquals(null, second.get(5));
+    }
+
+    @Test
+    void table_NumbersDaysWhenLocalDatesDiffer() throws Exception {
+        List<OpenMeteoJson.Forecast> forecasts = OpenMeteoJson.forecasts(JSON.createParser("""
+            [{"current_weather": {"temperature": 60.0, "windspeed": 5.0, "weathercode": 1},
+             "daily": {"time": ["2026-07-01"], "temperature_2m_max": [68.0],
+                       "temperature_2m_min": [55.0], "weathercode": [1]}},
+             {"current_weather": {"temperature": 80.0, "windspeed": 5.0, "weathercode": 0},
+             "daily": {"time": ["2026-07-02"], "temperature_2m_max": [88.0],
+                       "temperature_2m_min": [77.0], "weathercode": [0]}}]
+            """));
+
+        Map<String, Object> table = WeatherComparisonTool.table(
+            List.of(
+                new WeatherForecastTool.Geo(37.77, -122.42, "America/Los_Angeles", "United States", "San Francisco"),
+                new WeatherForecastTool.Geo(35.68, 139.69, "Asia/Tokyo", "Japan", "Tokyo")
+            ),
+            forecasts
+        );
+
+        assertEquals(
+            List.of("location", "now_F", "now", "wind_mph", "day_1"),
+            table.get("columns")
+        );
+        List<?> rows = (List<?>) table.get("rows");
+        assertEquals("2026-07-01 68/55 Mainly clear", ((List<?>) rows.get(0)).get(4));
+        assertEquals("2026-07-02 88/77 Clear sky", ((List<?>) rows.get(1)).get(4));
+    }
+}
@@ -0,0 +1,52 @@
+package com.williamcallahan.chatclient.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AnsiTextTest {
+
+    private static final String GREEN = "\u001b[38;2;0;255;65m";
+    private static final String RESET = "\u001b[0m";
+
+    @Test
+    void visualWidth_IgnoresCsiAndOscSequences() {
+        String link = "\u001b]8;;https://example.com\u0007link\u001b]8;;\u0007";
+        assertEquals(5, AnsiText.visualWidth(GREEN + "hello" + RESET));
+        assertEquals(4, AnsiText.visualWidth(link));
+    }
+
+    @Test
+    void strip_ReturnsSameInstanceWhenUnstyled() {
+        String plain = "no escapes here";
+        assertSame(plain, AnsiText.strip(plain));
+        assertEquals("hello", AnsiText.strip(GREEN + "hello" + RESET));
+    }
+
+    @Test
+    void padRight_PadsToVisualWidth() {
+        String padded = AnsiText.padRight(GREEN + "ab" + RESET, 5);
+        assertEquals(GREEN + "ab" + RESET + "   ", padded);
+        assertEquals(5, AnsiText.visualWidth(padded));
+    }
+
+    @Test
+    void truncate_PreservesStylingAndClosesIt() {
+        String truncated = AnsiText.truncate(GREEN + "hello world" + RESET, 8);
+        assertEquals(GREEN + "hello" + RESET + "...", truncated);
+    }
+
+    @Test
+    void visualWidth_CountsUnterminatedEscapeAsText() {
+        // The bare ESC is a zero-width control; the rest is ordinary text.
+        assertEquals(3, AnsiText.visualWidth("\u001b[31"));
+    }
+
+    @Test
+    void truncate_DoesNotSplitWideCharacters() {
+        String truncated = AnsiText.truncate("日本語テキスト", 8);
+        assertEquals("日本...", truncated);
+        assertEquals(7, AnsiText.visualWidth(truncated));
+    }
+}
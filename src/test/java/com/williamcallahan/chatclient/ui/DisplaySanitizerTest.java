@@ -0,0 +1,27 @@
+package com.williamcallahan.chatclient.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DisplaySanitizerTest {
+
+    @Test
+    void sanitize_ReturnsSameInstanceWhenClean() {
+        String clean = "plain text\nwith lines";
+        assertSame(clean, DisplaySanitizer.sanitize(clean));
+    }
+
+    @Test
+    void sanitize_NormalizesNewlinesAndExpandsTabsToStops() {
+        assertEquals("a\nb\nc", DisplaySanitizer.sanitize("a\r\nb\rc"));
+        assertEquals("ab  x\n    y", DisplaySanitizer.sanitize("ab\tx\n\ty"));
+    }
+
+    @Test
+    void sanitize_StripsEscapeSequencesAndControls() {
+        String input = "\u001b[31mred\u001b[0m \u001b]0;title\u0007ok\u0000\u0008!";
+        assertEquals("red ok!", DisplaySanitizer.sanitize(input));
+    }
+}
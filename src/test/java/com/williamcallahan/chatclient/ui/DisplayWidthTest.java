@@ -0,0 +1,18 @@
+package com.williamcallahan.chatclient.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DisplayWidthTest {
+
+    @Test
+    void of_MeasuresWideAndZeroWidthCodePoints() {
+        assertEquals(5, DisplayWidth.of("hello"));
+        assertEquals(6, DisplayWidth.of("日本語"));
+        assertEquals(4, DisplayWidth.of("한국"));
+        assertEquals(2, DisplayWidth.of("😀"));
+        assertEquals(1, DisplayWidth.of("é"));
+        assertEquals(0, DisplayWidth.of(0x200D));
+    }
+}
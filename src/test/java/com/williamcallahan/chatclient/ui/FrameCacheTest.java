@@ -0,0 +1,49 @@
+package com.williamcallahan.chatclient.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameCacheTest {
+
+    @Test
+    void patch_ReplacesOnlyTheStatusRow() {
+        FrameCache cache = new FrameCache();
+        cache.store("top", "history\ndivider\nstatus 1\nbottom", 2, 80, 24, 3, "m3");
+
+        assertTrue(cache.reusable(80, 24, 3, "m3"));
+        assertEquals(
+            "top\nhistory\ndivider\nstatus 2\nbottom",
+            cache.patch("status 2", null)
+        );
+        assertEquals(
+            "new top\nhistory\ndivider\nstatus 3\nbottom",
+            cache.patch("status 3", "new top")
+        );
+    }
+
+    @Test
+    void patch_ReplacesTheRowAboveTheStatusRowWhenGiven() {
+        FrameCache cache = new FrameCache();
+        cache.store("top", "history\nhud 1\nstatus 1\nbottom", 2, 80, 24, 3, "m3");
+
+        assertEquals(
+            "top\nhistory\nhud 2\nstatus 2\nbottom",
+            cache.patch("hud 2", "status 2", null)
+        );
+    }
+
+    @Test
+    void reusable_FalseWhenSizeOrMessagesChange() {
+        FrameCache cache = new FrameCache();
+        assertFalse(cache.reusable(80, 24, 0, null));
+
+        cache.store("top", "a\nb", 1, 80, 24, 3, "m3");
+
+        assertFalse(cache.reusable(100, 24, 3, "m3"));
+        assertFalse(cache.reusable(80, 24, 4, "m4"));
+        assertFalse(cache.reusable(80, 24, 3, "m3b"));
+    }
+}
@@ -0,0 +1,31 @@
+package com.williamcallahan.chatclient.ui;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrameHistogramTest {
+
+    @Test
+    void percentile_StaysWithinBucketPrecision() {
+        FrameHistogram histogram = new FrameHistogram();
+        for (long v = 1; v <= 10_000; v++) histogram.record(v * 1_000);
+
+        long p50 = histogram.percentile(50);
+        long p99 = histogram.percentile(99);
+
+        assertTrue(Math.abs(p50 - 5_000_000) <= 5_000_000 * 0.04, "p50=" + p50);
+        assertTrue(Math.abs(p99 - 9_900_000) <= 9_900_000 * 0.04, "p99=" + p99);
+        assertEquals(10_000_000, histogram.percentile(100));
+    }
+
+    @Test
+    void indexOf_RoundTripsThroughHighestEquivalent() {
+        for (long v : new long[] { 0, 31, 32, 33, 1_000, 123_456_789, Long.MAX_VALUE }) {
+            int index = FrameHistogram.indexOf(v);
+            assertTrue(FrameHistogram.highestEquivalent(index) >= v);
+            assertEquals(index, FrameHistogram.indexOf(FrameHistogram.highestEquivalent(index)));
+        }
+    }
+}
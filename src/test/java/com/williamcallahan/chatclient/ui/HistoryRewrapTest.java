@@ -0,0 +1,74 @@
+package com.williamcallahan.chatclient.ui;
+
+import com.williamcallahan.chatclient.domain.ChatMessage;
+import com.williamcallahan.chatclient.domain.Role;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryRewrapTest {
+
+    private static List<HistoryRewrap.Pending> pending(int count) {
+        List<HistoryRewrap.Pending> out = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ChatMessage m = new ChatMessage(
+                "m" + i, "c", i, Role.USER, ChatMessage.Source.USER_INPUT,
+                "text " + i, null, null, null, null, null, null, null, null
+            );
+            out.add(new HistoryRewrap.Pending(i, m, m.content()));
+        }
+        return out;
+    }
+
+    @Test
+    void awaitBatch_DeliversEveryPendingMessageInOrder() {
+        HistoryRewrap job = new HistoryRewrap(
+            7,
+            40,
+            pending(100),
+            (m, text, width) -> List.of(text + "@" + width)
+        );
+        job.start();
+
+        List<HistoryRewrap.Result> results = new ArrayList<>();
+        HistoryRewrap.Batch batch;
+        do {
+            batch = job.awaitBatch();
+            assertEquals(7, batch.generation());
+            results.addAll(batch.results());
+        } while (!batch.done());
+
+        assertEquals(100, results.size());
+        assertEquals("m42", results.get(42).messageId());
+        assertEquals(List.of("text 42@40"), results.get(42).lines());
+    }
+
+    @Test
+    void cancel_EndsWithEmptyFinalBatch() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        HistoryRewrap job = new HistoryRewrap(1, 40, pending(100), (m, text, width) -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(text);
+        });
+        job.start();
+        started.await();
+        job.cancel();
+        release.countDown();
+
+        HistoryRewrap.Batch batch = job.awaitBatch();
+
+        assertTrue(batch.done());
+        assertTrue(batch.results().isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package com.williamcallahan.chatclient.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HistoryViewportTest {
+
+    private static HistoryIndex indexWithMessages(int count) {
+        HistoryIndex index = new HistoryIndex();
+        for (int i = 0; i < count; i++) {
+            index.append("m" + i, List.of("label " + i, "body " + i, ""));
+        }
+        return index;
+    }
+
+    @Test
+    void window_FollowsNewestLinesByDefault() {
+        HistoryIndex index = indexWithMessages(10);
+        HistoryViewport viewport = new HistoryViewport();
+
+        HistoryViewport.Window window = viewport.window(index, 5);
+
+        assertEquals(index.totalLines(), window.endExclusive());
+        assertEquals(0, viewport.scrollOffsetLines());
+    }
+
+    @Test
+    void window_KeepsAnchoredMessageWhenNewMessagesArrive() {
+        HistoryIndex index = indexWithMessages(10);
+        HistoryViewport viewport = new HistoryViewport();
+        viewport.window(index, 5);
+        viewport.scrollUp(7);
+        HistoryViewport.Window before = viewport.window(index, 5);
+        String topLine = index.line(before.startInclusive());
+
+        index.append("m10", List.of("label 10", "body 10", ""));
+        HistoryViewport.Window after = viewport.window(index, 5);
+
+        assertEquals(topLine, index.line(after.startInclusive()));
+    }
+
+    @Test
+    void window_ScrollsBeyondFiftyThousandLines() {
+        HistoryIndex index = indexWithMessages(30_000);
+        HistoryViewport viewport = new HistoryViewport();
+
+        viewport.top();
+        HistoryViewport.Window window = viewport.window(index, 20);
+
+        assertEquals(0, window.startInclusive());
+        assertEquals(index.totalLines() - 20, viewport.scrollOffsetLines());
+    }
+
+    @Test
+    void window_ResumesFollowingAfterScrollingToBottom() {
+        HistoryIndex index = indexWithMessages(10);
+        HistoryViewport viewport = new HistoryViewport();
+        viewport.scrollUp(6);
+        viewport.window(index, 5);
+        viewport.scrollDown(100);
+        viewport.window(index, 5);
+
+        index.append("m10", List.of("label 10", "body 10", ""));
+        HistoryViewport.Window window = viewport.window(index, 5);
+
+        assertEquals(index.totalLines(), window.endExclusive());
+    }
+
+    @Test
+    void locate_MapsLinesToMessageOffsets() {
+        HistoryIndex index = indexWithMessages(100);
+
+        HistoryIndex.Position position = index.locate(3 * 42 + 1);
+
+        assertEquals("m42", position.messageId());
+        assertEquals(1, position.lineOffset());
+        assertEquals(3 * 42 + 1, index.lineOf("m42", 1));
+    }
+}
@@ -0,0 +1,38 @@
+package com.williamcallahan.chatclient.ui;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplyStreamTest {
+
+    @Test
+    void awaitEvents_DrainsEverythingQueuedInOrder() {
+        ReplyStream stream = new ReplyStream();
+        stream.onFirstToken(42);
+        stream.onText("Hel");
+        stream.onText("lo");
+        stream.onToolCall("weather");
+
+        assertEquals(
+            List.of(
+                new ReplyStream.FirstToken(42),
+                new ReplyStream.Text("Hel"),
+                new ReplyStream.Text("lo"),
+                new ReplyStream.ToolCallStarted("weather")
+            ),
+            stream.awaitEvents()
+        );
+    }
+
+    @Test
+    void close_ReleasesWaitingCommand() throws Exception {
+        ReplyStream stream = new ReplyStream();
+        Thread closer = new Thread(stream::close);
+        closer.start();
+
+        assertEquals(List.of(new ReplyStream.Closed()), stream.awaitEvents());
+        closer.join();
+    }
+}
@@ -0,0 +1,26 @@
+package com.williamcallahan.chatclient.ui;
+
+import com.williamcallahan.tui4j.compat.lipgloss.Style;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TuiThemeTest {
+
+    @Test
+    void render_MemoizesThemeStyleFragments() {
+        String first = TuiTheme.render(TuiTheme.assistantLabel(), "Assistant");
+        String second = TuiTheme.render(TuiTheme.assistantLabel(), "Assistant");
+
+        assertSame(first, second);
+        assertEquals(TuiTheme.assistantLabel().render("Assistant"), first);
+    }
+
+    @Test
+    void render_RendersOtherStylesDirectly() {
+        Style custom = Style.newStyle().foreground(TuiTheme.ERROR);
+
+        assertEquals(custom.render("x"), TuiTheme.render(custom, "x"));
+    }
+}
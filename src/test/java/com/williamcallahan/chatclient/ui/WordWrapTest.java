@@ -0,0 +1,24 @@
+package com.williamcallahan.chatclient.ui;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WordWrapTest {
+
+    @Test
+    void wrap_BreaksByCellsNotChars() {
+        List<String> lines = WordWrap.wrap("日本語 日本語 日本語", 10);
+
+        assertEquals(List.of("日本語", "日本語", "日本語"), lines);
+    }
+
+    @Test
+    void wrap_HardBreaksLongWordsAndKeepsBlankLines() {
+        List<String> lines = WordWrap.wrap("abcdefghij\n\n  indented", 4);
+
+        assertEquals(List.of("abcd", "efgh", "ij", "", "  in", "dent", "ed"), lines);
+    }
+}